@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("org.jetbrains.intellij") version "1.17.2"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.testgen"
@@ -21,6 +22,28 @@ dependencies {
     testImplementation("org.mockito:mockito-core:5.7.0")
 }
 
+// Benchmarks need the IDE classes (PsiType, settings service) that the
+// IntelliJ plugin only puts on the compile/test classpaths
+configurations {
+    named("jmhImplementation") {
+        extendsFrom(compileOnly.get(), testImplementation.get())
+    }
+}
+
+// ./gradlew jmh — results in build/results/jmh/results.json
+jmh {
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    jmhVersion.set("1.37")
+    fork.set(2)
+    warmupIterations.set(3)
+    iterations.set(5)
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("s")
+    profilers.set(listOf("gc"))          // allocation rate per op
+    resultFormat.set("JSON")
+    jvmArgs.set(listOf("-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"))
+}
+
 tasks {
     withType<JavaCompile> {
         sourceCompatibility = "17"
@@ -46,4 +69,21 @@ tasks {
     publishPlugin {
         token.set(System.getenv("PUBLISH_TOKEN"))
     }
+
+    // Headless generation for CI:
+    //   ./gradlew generateTests -PsourceRoot=/repo/src/main/java -PoutputDir=/repo/build/generated-tests
+    register<org.jetbrains.intellij.tasks.RunIdeTask>("generateTests") {
+        group = "verification"
+        description = "Generates JUnit skeleton tests without opening an IDE window"
+        args = listOfNotNull(
+            "generate-junit-tests",
+            project.findProperty("sourceRoot") as String?,
+            project.findProperty("outputDir") as String?,
+            (project.findProperty("projectDir") as String?)?.let { "--project=$it" },
+            if (project.hasProperty("overwrite")) "--overwrite" else null,
+            (project.findProperty("snapshot") as String?)?.let { "--snapshot=$it" },
+            (project.findProperty("snapshotKey") as String?)?.let { "--snapshot-key=$it" }
+        )
+        jvmArgs = listOf("-Djava.awt.headless=true", "-Xmx2g")
+    }
 }
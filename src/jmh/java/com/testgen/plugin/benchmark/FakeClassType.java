@@ -0,0 +1,105 @@
+package com.testgen.plugin.benchmark;
+
+import com.intellij.pom.java.LanguageLevel;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Minimal unresolved class type, so type-name benchmarks run without
+ * booting an IDE. resolve() returns null, which exercises the same path
+ * the analyzer's syntactic mode takes.
+ */
+final class FakeClassType extends PsiClassType {
+
+    private final String qualifiedName;
+    private final PsiType[] parameters;
+
+    FakeClassType(String qualifiedName, PsiType... parameters) {
+        super(LanguageLevel.JDK_17);
+        this.qualifiedName = qualifiedName;
+        this.parameters    = parameters;
+    }
+
+    @Override
+    public PsiClass resolve() {
+        return null;
+    }
+
+    @Override
+    public String getClassName() {
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    @Override
+    public PsiType @NotNull [] getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public @NotNull ClassResolveResult resolveGenerics() {
+        return ClassResolveResult.EMPTY;
+    }
+
+    @Override
+    public @NotNull PsiClassType rawType() {
+        return new FakeClassType(qualifiedName);
+    }
+
+    @Override
+    public @NotNull GlobalSearchScope getResolveScope() {
+        return GlobalSearchScope.EMPTY_SCOPE; // nothing resolves against it
+    }
+
+    @Override
+    public @NotNull LanguageLevel getLanguageLevel() {
+        return LanguageLevel.JDK_17;
+    }
+
+    @Override
+    public @NotNull PsiClassType setLanguageLevel(@NotNull LanguageLevel languageLevel) {
+        return this;
+    }
+
+    @Override
+    public @NotNull String getPresentableText(boolean annotated) {
+        return render(false);
+    }
+
+    @Override
+    public @NotNull String getCanonicalText() {
+        return render(true);
+    }
+
+    @Override
+    public @NotNull String getInternalCanonicalText() {
+        return getCanonicalText();
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public boolean equalsToText(@NotNull String text) {
+        return text.equals(getCanonicalText());
+    }
+
+    /** Mirrors the platform: canonical text has no space after commas. */
+    private String render(boolean canonical) {
+        StringBuilder sb = new StringBuilder(canonical ? qualifiedName : getClassName());
+        if (parameters.length > 0) {
+            sb.append('<');
+            for (int i = 0; i < parameters.length; i++) {
+                if (i > 0) sb.append(canonical ? "," : ", ");
+                sb.append(canonical ? parameters[i].getCanonicalText()
+                                    : parameters[i].getPresentableText());
+            }
+            sb.append('>');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.testgen.plugin.benchmark;
+
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic service classes for the benchmarks — the same
+ * parameters always produce the same ServiceClassInfo.
+ */
+final class SampleClasses {
+
+    private static final String[] PARAM_TYPES = {
+        "Long", "String", "int", "boolean", "User", "List<Order>", "Map<String, Long>", "Optional<User>"
+    };
+
+    private static final String[] RETURN_TYPES = {
+        "void", "User", "List<User>", "boolean", "Optional<Order>", "Long", "Set<String>"
+    };
+
+    private SampleClasses() {}
+
+    static ServiceClassInfo service(int methods, int params, int dependencies) {
+        List<FieldInfo> fields = new ArrayList<>(dependencies);
+        for (int d = 0; d < dependencies; d++) {
+            fields.add(new FieldInfo("Dependency" + d + "Repository", "dependency" + d + "Repository"));
+        }
+
+        List<MethodInfo> methodInfos = new ArrayList<>(methods);
+        for (int m = 0; m < methods; m++) {
+            List<ParamInfo> paramInfos = new ArrayList<>(params);
+            for (int p = 0; p < params; p++) {
+                paramInfos.add(new ParamInfo(PARAM_TYPES[(m + p) % PARAM_TYPES.length], "arg" + p));
+            }
+            String returnType = RETURN_TYPES[m % RETURN_TYPES.length];
+            List<String> exceptions = m % 3 == 0 ? List.of("NotFoundException") : List.of();
+            List<DependencyCall> calls = dependencies == 0 ? List.of() : List.of(new DependencyCall(
+                fields.get(m % dependencies).fieldName(), "load" + m,
+                paramInfos.isEmpty() ? List.of() : List.of(paramInfos.get(0).typeName()), returnType,
+                false, exceptions));
+            methodInfos.add(new MethodInfo("operation" + m, returnType, returnType.equals("void"),
+                                           paramInfos, exceptions, calls));
+        }
+
+        return new ServiceClassInfo("com.example.service", "SampleService", fields, methodInfos);
+    }
+}
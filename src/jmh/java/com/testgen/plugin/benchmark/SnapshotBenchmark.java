@@ -0,0 +1,47 @@
+package com.testgen.plugin.benchmark;
+
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.snapshot.SnapshotReader;
+import com.testgen.plugin.snapshot.SnapshotWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load an analysis snapshot of a whole project from disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotBenchmark {
+
+    @Param({"1000", "30000"})
+    public int classes;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("analysis", ".snapshot");
+        try (SnapshotWriter writer = SnapshotWriter.create(file, "/src", "benchmark")) {
+            for (int i = 0; i < classes; i++) {
+                // Typical service: a dozen methods, a few params and dependencies
+                writer.add(SampleClasses.service(12 + i % 5, 1 + i % 3, 2 + i % 4));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<ServiceClassInfo> load() throws IOException {
+        return SnapshotReader.read(file);
+    }
+}
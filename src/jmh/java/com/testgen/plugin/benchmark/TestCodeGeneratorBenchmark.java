@@ -0,0 +1,73 @@
+package com.testgen.plugin.benchmark;
+
+import com.testgen.plugin.generator.TestCodeGenerator;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.settings.TestGeneratorSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TestCodeGenerator across class shapes.
+ * Run with the gc profiler (configured in build.gradle.kts) for B/op.
+ *
+ * {@code mode} compares the sequential loop with per-method parallel
+ * generation on the benchmark's own pool; classes below the default
+ * threshold run sequentially either way.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TestCodeGeneratorBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int methods;
+
+    @Param({"0", "3", "8"})
+    public int params;
+
+    @Param({"1", "5", "20"})
+    public int dependencies;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private ServiceClassInfo info;
+    private ExecutorService executor;
+    private TestCodeGenerator generator;
+    private StringBuilder reusableBuffer;
+
+    @Setup
+    public void setUp() {
+        info           = SampleClasses.service(methods, params, dependencies);
+        reusableBuffer = new StringBuilder(1 << 16);
+
+        TestGeneratorSettings settings = new TestGeneratorSettings(); // default settings
+        if (mode.equals("parallel")) {
+            executor  = Executors.newWorkStealingPool();
+            generator = new TestCodeGenerator(settings, executor,
+                                              TestCodeGenerator.DEFAULT_PARALLEL_THRESHOLD);
+        } else {
+            generator = new TestCodeGenerator(settings);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != null) executor.shutdown();
+    }
+
+    @Benchmark
+    public String generateToString() {
+        return generator.generate(info);
+    }
+
+    @Benchmark
+    public int generateStreaming() throws IOException {
+        reusableBuffer.setLength(0);
+        generator.generate(info, reusableBuffer);
+        return reusableBuffer.length();
+    }
+}
@@ -0,0 +1,49 @@
+package com.testgen.plugin.benchmark;
+
+import com.intellij.psi.PsiArrayType;
+import com.intellij.psi.PsiType;
+import com.testgen.plugin.generator.TypeNameSimplifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structural TypeNameSimplifier vs. the canonical-text regex it replaced,
+ * on increasingly deep generic signatures.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TypeNameBenchmark {
+
+    /** The pre-visitor implementation, kept verbatim as the baseline. */
+    private static final String LEGACY_REGEX =
+        "\\b[a-z][a-zA-Z0-9_]*(?:\\.[a-z][a-zA-Z0-9_]*)*\\.([A-Z])";
+
+    @Param({"1", "3", "6"})
+    public int depth;
+
+    private PsiType type;
+
+    @Setup
+    public void setUp() {
+        // depth 1: Map<String, User>
+        // depth n: Map<String, List<Map<String, ... User[] ...>>>
+        PsiType inner = new PsiArrayType(new FakeClassType("com.example.domain.User"));
+        for (int i = 0; i < depth; i++) {
+            inner = new FakeClassType("java.util.Map",
+                new FakeClassType("java.lang.String"),
+                i % 2 == 0 ? new FakeClassType("java.util.List", inner) : inner);
+        }
+        type = new FakeClassType("java.util.Optional", inner);
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        return type.getCanonicalText().replaceAll(LEGACY_REGEX, "$1");
+    }
+
+    @Benchmark
+    public String visitor() {
+        return TypeNameSimplifier.simplify(type, false);
+    }
+}
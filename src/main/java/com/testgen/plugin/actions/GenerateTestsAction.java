@@ -2,33 +2,51 @@ package com.testgen.plugin.actions;
 
 import com.intellij.notification.*;
 import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.testgen.plugin.diagnostics.GenerationStage;
+import com.testgen.plugin.diagnostics.StageTimer;
 import com.testgen.plugin.generator.*;
 import com.testgen.plugin.model.ServiceClassInfo;
 import com.testgen.plugin.settings.TestGeneratorSettings;
 import com.testgen.plugin.ui.MethodSelectorDialog;
+import com.testgen.plugin.verify.GeneratedTestVerifier;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Entry point for the plugin.
  * Triggered by: Alt+Shift+T OR Code menu → "Generate JUnit Tests"
  *
  * Flow:
- *   1. Get PsiClass from current editor cursor position
- *   2. Analyze it (PsiClassAnalyzer)
- *   3. Show method selector dialog (user picks which methods to test)
- *   4. Generate test source (TestCodeGenerator)
- *   5. Write file to src/test/java (TestFileWriter)
+ *   1. Get PsiClass from current editor cursor position          (EDT)
+ *   2. Analyze it (PsiClassAnalyzer)        (background, non-blocking read action)
+ *   3. Show method selector dialog (user picks which methods to test)  (EDT)
+ *   4. Generate test source (TestCodeGenerator)                  (background)
+ *   5. Write file to src/test/java (TestFileWriter)   (EDT, WriteCommandAction)
  *   6. Show success notification
+ *   7. Optionally compile-check the file (GeneratedTestVerifier)  (background)
+ *
+ * Analysis and generation run under a cancellable progress indicator, so
+ * large classes never freeze the editor. Each stage is timed (StageTimer);
+ * see Tools → JUnit Generator Statistics.
  */
 public class GenerateTestsAction extends AnAction {
 
-    private static final String NOTIFICATION_GROUP_ID = "JUnit Test Generator";
+    public static final String NOTIFICATION_GROUP_ID = "JUnit Test Generator";
+
+    /** Generates the tests of a large class method by method, off the shared application pool. */
+    private static final Executor GENERATION_POOL = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+        "JUnit Test Generator", Runtime.getRuntime().availableProcessors());
 
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
@@ -36,7 +54,10 @@ public class GenerateTestsAction extends AnAction {
         if (project == null) return;
 
         // ── 1. Resolve the PsiClass under cursor ──────────────────────────
-        PsiClass psiClass = resolvePsiClass(e);
+        PsiClass psiClass;
+        try (StageTimer ignored = StageTimer.start(GenerationStage.RESOLVE, null)) {
+            psiClass = resolvePsiClass(e);
+        }
         if (psiClass == null) {
             notifyError(project, "No Java class found at cursor position.");
             return;
@@ -47,16 +68,58 @@ public class GenerateTestsAction extends AnAction {
             return;
         }
 
-        // ── 2. Analyze the class ──────────────────────────────────────────
-        PsiClassAnalyzer analyzer = new PsiClassAnalyzer();
-        ServiceClassInfo info = analyzer.analyze(psiClass);
+        // The class is re-resolved inside every read action below, so the
+        // PSI may be reparsed while analysis runs without leaving us stale.
+        SmartPsiElementPointer<PsiClass> classPointer =
+            SmartPointerManager.createPointer(psiClass);
+        String className = psiClass.getName();
+
+        // ── 2. Analyze the class (background, cancellable) ────────────────
+        new Task.Backgroundable(project, "Analyzing " + className, true) {
+            private ServiceClassInfo info;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                try (StageTimer ignored = StageTimer.start(GenerationStage.ANALYZE, className)) {
+                    info = analyze(project, classPointer, indicator);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (info == null || info.publicMethods().isEmpty()) {
+                    notifyError(project, "No public methods found in " + className + ".");
+                    return;
+                }
+                selectAndGenerate(project, classPointer, info);
+            }
+        }.queue();
+    }
 
-        if (info == null || info.getPublicMethods().isEmpty()) {
-            notifyError(project, "No public methods found in " + psiClass.getName() + ".");
-            return;
-        }
+    private ServiceClassInfo analyze(Project project,
+                                     SmartPsiElementPointer<PsiClass> classPointer,
+                                     ProgressIndicator indicator) {
+        return ReadAction.nonBlocking(() -> {
+                PsiClass target = classPointer.getElement();
+                if (target == null) return null;
+                // Resolved analysis, cached until the PSI changes; the index
+                // only holds syntactic info, which is not enough to generate from
+                return new PsiClassAnalyzer().analyze(target);
+            })
+            .inSmartMode(project)
+            .wrapProgress(indicator)
+            .expireWith(project)
+            .executeSynchronously();
+    }
 
+    // ── 3–6. Dialog on the EDT, generation in background, write on the EDT ─
+
+    private void selectAndGenerate(Project project,
+                                   SmartPsiElementPointer<PsiClass> classPointer,
+                                   ServiceClassInfo info) {
         // ── 3. Show method selector dialog ────────────────────────────────
+        // Not timed: the time spent here is the user's, not ours
         MethodSelectorDialog dialog = new MethodSelectorDialog(project, info);
         if (!dialog.showAndGet()) return; // user cancelled
 
@@ -67,30 +130,57 @@ public class GenerateTestsAction extends AnAction {
         }
 
         // Rebuild ServiceClassInfo with only selected methods
-        ServiceClassInfo filteredInfo = new ServiceClassInfo(
-            info.getPackageName(),
-            info.getClassName(),
-            info.getInjectedFields(),
-            selectedMethods
-        );
+        ServiceClassInfo filteredInfo = info.withMethods(selectedMethods);
 
         // ── 4. Generate test source ───────────────────────────────────────
         TestGeneratorSettings settings = TestGeneratorSettings.getInstance();
-        TestCodeGenerator generator    = new TestCodeGenerator(settings);
-        String testSource              = generator.generate(filteredInfo);
-
-        // ── 5. Write file ─────────────────────────────────────────────────
-        TestFileWriter writer = new TestFileWriter(project);
-        PsiFile testFile = writer.writeTestFile(psiClass, testSource, filteredInfo);
-
-        // ── 6. Notify success ─────────────────────────────────────────────
-        if (testFile != null) {
-            notifySuccess(project,
-                filteredInfo.getClassName() + "Test.java generated with " +
-                selectedMethods.size() + " test method(s).");
-        } else {
-            notifyError(project, "Failed to create test file. Check that src/test/java exists.");
-        }
+        new Task.Backgroundable(project, "Generating " + info.testClassName(), true) {
+            private String testSource;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try (StageTimer ignored =
+                         StageTimer.start(GenerationStage.GENERATE, info.className())) {
+                    testSource = new TestCodeGenerator(settings, GENERATION_POOL,
+                                                       TestCodeGenerator.DEFAULT_PARALLEL_THRESHOLD)
+                        .generate(filteredInfo);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                // ── 5. Write file (WriteCommandAction, EDT) ───────────────
+                PsiClass psiClass = classPointer.getElement();
+                if (psiClass == null) {
+                    notifyError(project, info.className() + " was removed during generation.");
+                    return;
+                }
+                PsiFile testFile;
+                try (StageTimer ignored =
+                         StageTimer.start(GenerationStage.WRITE, info.className())) {
+                    testFile = new TestFileWriter(project)
+                        .writeTestFile(psiClass, testSource, filteredInfo);
+                }
+
+                // ── 6. Notify success ─────────────────────────────────────
+                if (testFile != null) {
+                    // All methods, so deselected ones don't count as changed later
+                    GeneratedSignatures.getInstance(project).record(info);
+                    notifySuccess(project,
+                        filteredInfo.testClassName() + ".java generated with " +
+                        selectedMethods.size() + " test method(s).");
+
+                    // ── 7. Compile check (optional) ───────────────────────
+                    VirtualFile sourceFile = psiClass.getContainingFile().getVirtualFile();
+                    if (settings.isVerifyGeneratedTests() && sourceFile != null) {
+                        new GeneratedTestVerifier(project).verifyInBackground(
+                            List.of(new TestFileWriter.Request(sourceFile, filteredInfo)));
+                    }
+                } else {
+                    notifyError(project, "Failed to create test file. Check that src/test/java exists.");
+                }
+            }
+        }.queue();
     }
 
     // ── Availability: only enable when inside a Java file ─────────────────
@@ -122,9 +212,13 @@ public class GenerateTestsAction extends AnAction {
             if (fromCursor != null) return fromCursor;
         }
 
-        // Fallback: return first class in file
+        // Fallback: the first testable class in the file, else its first class
         if (psiFile instanceof PsiJavaFile) {
             PsiClass[] classes = ((PsiJavaFile) psiFile).getClasses();
+            PsiClassAnalyzer analyzer = new PsiClassAnalyzer();
+            for (PsiClass psiClass : classes) {
+                if (analyzer.isTestableClass(psiClass)) return psiClass;
+            }
             return classes.length > 0 ? classes[0] : null;
         }
 
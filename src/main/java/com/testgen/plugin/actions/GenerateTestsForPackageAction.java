@@ -0,0 +1,167 @@
+package com.testgen.plugin.actions;
+
+import com.intellij.notification.*;
+import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.testgen.plugin.generator.BulkTestGenerator;
+import com.testgen.plugin.generator.BulkTestGenerator.AnalyzedClass;
+import com.testgen.plugin.generator.TestFileWriter;
+import com.testgen.plugin.settings.TestGeneratorSettings;
+import com.testgen.plugin.verify.GeneratedTestVerifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk variant of {@link GenerateTestsAction}.
+ * Triggered from the Project view on a package, directory or module node.
+ *
+ * Generates tests for every concrete class below the selection without
+ * showing the method dialog — all public methods are covered. Existing
+ * test files only get tests for methods whose signature changed since the
+ * last run, and only those not already present. With the compile check
+ * enabled, all written files are then compiled in one pass per module.
+ */
+public class GenerateTestsForPackageAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+
+        List<SmartPsiElementPointer<PsiDirectory>> roots = resolveDirectories(e, project);
+        if (roots.isEmpty()) {
+            notifyError(project, "Select a package, directory or module.");
+            return;
+        }
+
+        new Task.Backgroundable(project, "Generating JUnit tests", true) {
+            private List<AnalyzedClass> classes = List.of();
+            private BulkTestGenerator.Prepared prepared;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                BulkTestGenerator generator = new BulkTestGenerator(project);
+                classes = generator.analyze(roots, indicator);
+                Map<AnalyzedClass, String> sources = generator.generate(classes, indicator);
+                indicator.setText("Comparing with existing test files…");
+                prepared = ReadAction.nonBlocking(() -> generator.prepare(sources))
+                    .wrapProgress(indicator)
+                    .expireWith(project)
+                    .executeSynchronously();
+            }
+
+            @Override
+            public void onSuccess() {
+                if (classes.isEmpty()) {
+                    notifyError(project, "No testable classes found in the selection.");
+                    return;
+                }
+                TestFileWriter.WriteResult result = new BulkTestGenerator(project).write(prepared);
+                // Unchanged: regenerated to the very same text, so not touched
+                int unchanged = result.unchanged().size();
+                long upToDate = classes.stream().filter(AnalyzedClass::isUpToDate).count();
+                notifySuccess(project, result.written().size() + " test file(s) generated" +
+                              (unchanged > 0 ? ", " + unchanged + " unchanged" : "") +
+                              (upToDate > 0 ? ", " + upToDate + " already up to date." : "."));
+
+                // One compiler pass per module over everything just written
+                if (TestGeneratorSettings.getInstance().isVerifyGeneratedTests()) {
+                    new GeneratedTestVerifier(project).verifyInBackground(result.written());
+                }
+            }
+        }.queue();
+    }
+
+    // ── Availability: directories, packages or a module node ──────────────
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        boolean enabled = e.getProject() != null && (
+            e.getData(LangDataKeys.MODULE_CONTEXT) != null ||
+            hasDirectorySelection(e.getData(LangDataKeys.PSI_ELEMENT_ARRAY)));
+        e.getPresentation().setEnabledAndVisible(enabled);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    private boolean hasDirectorySelection(PsiElement[] elements) {
+        if (elements == null) return false;
+        for (PsiElement element : elements) {
+            if (element instanceof PsiDirectoryContainer || element instanceof PsiDirectory) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ── Resolve selection to source directories ───────────────────────────
+
+    private List<SmartPsiElementPointer<PsiDirectory>> resolveDirectories(AnActionEvent e,
+                                                                       Project project) {
+        List<PsiDirectory> dirs = new ArrayList<>();
+        PsiManager psiManager = PsiManager.getInstance(project);
+
+        Module module = e.getData(LangDataKeys.MODULE_CONTEXT);
+        if (module != null) {
+            // Whole module: every production source root
+            for (VirtualFile root : ModuleRootManager.getInstance(module).getSourceRoots(false)) {
+                PsiDirectory dir = psiManager.findDirectory(root);
+                if (dir != null) dirs.add(dir);
+            }
+        } else {
+            PsiElement[] elements = e.getData(LangDataKeys.PSI_ELEMENT_ARRAY);
+            if (elements != null) {
+                for (PsiElement element : elements) {
+                    if (element instanceof PsiDirectory) {
+                        dirs.add((PsiDirectory) element);
+                    } else if (element instanceof PsiDirectoryContainer) {
+                        // A package may span several source roots
+                        dirs.addAll(List.of(((PsiDirectoryContainer) element).getDirectories()));
+                    }
+                }
+            }
+        }
+
+        SmartPointerManager pointers = SmartPointerManager.getInstance(project);
+        List<SmartPsiElementPointer<PsiDirectory>> result = new ArrayList<>();
+        for (PsiDirectory dir : dirs) {
+            result.add(pointers.createSmartPsiElementPointer(dir));
+        }
+        return result;
+    }
+
+    // ── Notifications ─────────────────────────────────────────────────────
+
+    private void notifySuccess(Project project, String message) {
+        Notifications.Bus.notify(
+            new Notification(
+                GenerateTestsAction.NOTIFICATION_GROUP_ID,
+                "✅ JUnit Tests Generated",
+                message,
+                NotificationType.INFORMATION
+            ), project);
+    }
+
+    private void notifyError(Project project, String message) {
+        Notifications.Bus.notify(
+            new Notification(
+                GenerateTestsAction.NOTIFICATION_GROUP_ID,
+                "⚠️ JUnit Generator",
+                message,
+                NotificationType.WARNING
+            ), project);
+    }
+}
@@ -0,0 +1,18 @@
+package com.testgen.plugin.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.testgen.plugin.ui.GenerationStatisticsDialog;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tools → "JUnit Generator Statistics": per-stage p50 / p95 of recent runs.
+ */
+public class ShowGenerationStatisticsAction extends AnAction implements DumbAware {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        new GenerationStatisticsDialog(e.getProject()).show();
+    }
+}
@@ -0,0 +1,21 @@
+package com.testgen.plugin.diagnostics;
+
+/**
+ * The stages of a single "Generate JUnit Tests" run, in execution order.
+ * The method dialog in between is left out: it waits on the user.
+ */
+public enum GenerationStage {
+    RESOLVE("Resolve class"),
+    ANALYZE("Analyze"),
+    GENERATE("Generate source"),
+    WRITE("Write file"),
+    VERIFY("Compile check");
+
+    private final String displayName;
+
+    GenerationStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() { return displayName; }
+}
@@ -0,0 +1,24 @@
+package com.testgen.plugin.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event committed once per stage. Shows up in any recording under
+ * "JUnit Test Generator" with its duration, class and allocated bytes.
+ */
+@Name("com.testgen.plugin.GenerationStage")
+@Label("Test Generation Stage")
+@Category("JUnit Test Generator")
+@StackTrace(false)
+class GenerationStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Class")
+    String className;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
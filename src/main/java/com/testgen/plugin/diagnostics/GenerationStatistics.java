@@ -0,0 +1,108 @@
+package com.testgen.plugin.diagnostics;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * In-memory per-stage samples for the current IDE session (not persisted).
+ * Keeps the most recent {@link #WINDOW} samples per stage and reports
+ * p50 / p95 for both duration and allocation.
+ */
+@Service
+public final class GenerationStatistics {
+
+    static final int WINDOW = 500;
+
+    private final Map<GenerationStage, Samples> samples = new EnumMap<>(GenerationStage.class);
+
+    public GenerationStatistics() {
+        for (GenerationStage stage : GenerationStage.values()) {
+            samples.put(stage, new Samples());
+        }
+    }
+
+    public static GenerationStatistics getInstance() {
+        return ApplicationManager.getApplication().getService(GenerationStatistics.class);
+    }
+
+    void record(GenerationStage stage, long durationNanos, long allocatedBytes) {
+        samples.get(stage).add(durationNanos, allocatedBytes);
+    }
+
+    public StageSummary summarize(GenerationStage stage) {
+        return samples.get(stage).summarize(stage);
+    }
+
+    public void reset() {
+        samples.values().forEach(Samples::clear);
+    }
+
+    // ── Summary ────────────────────────────────────────────────────────────
+
+    /** Percentiles for one stage; allocation values are -1 when unavailable. */
+    public static class StageSummary {
+        private final GenerationStage stage;
+        private final int count;
+        private final long p50Nanos, p95Nanos;
+        private final long p50Bytes, p95Bytes;
+
+        StageSummary(GenerationStage stage, int count,
+                     long p50Nanos, long p95Nanos, long p50Bytes, long p95Bytes) {
+            this.stage    = stage;
+            this.count    = count;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p50Bytes = p50Bytes;
+            this.p95Bytes = p95Bytes;
+        }
+
+        public GenerationStage getStage() { return stage; }
+        public int getCount()             { return count; }
+        public long getP50Nanos()         { return p50Nanos; }
+        public long getP95Nanos()         { return p95Nanos; }
+        public long getP50Bytes()         { return p50Bytes; }
+        public long getP95Bytes()         { return p95Bytes; }
+    }
+
+    // ── Ring buffer per stage ─────────────────────────────────────────────
+
+    private static class Samples {
+        private final long[] durations   = new long[WINDOW];
+        private final long[] allocations = new long[WINDOW];
+        private int size;
+        private int next;
+
+        synchronized void add(long durationNanos, long allocatedBytes) {
+            durations[next]   = durationNanos;
+            allocations[next] = allocatedBytes;
+            next = (next + 1) % WINDOW;
+            if (size < WINDOW) size++;
+        }
+
+        synchronized void clear() {
+            size = 0;
+            next = 0;
+        }
+
+        synchronized StageSummary summarize(GenerationStage stage) {
+            long[] d = Arrays.copyOf(durations, size);
+            long[] a = Arrays.copyOf(allocations, size);
+            Arrays.sort(d);
+            Arrays.sort(a);
+            return new StageSummary(stage, size,
+                percentile(d, 50), percentile(d, 95),
+                percentile(a, 50), percentile(a, 95));
+        }
+
+        /** Nearest-rank percentile of a sorted array; -1 when empty. */
+        private static long percentile(long[] sorted, int p) {
+            if (sorted.length == 0) return -1;
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
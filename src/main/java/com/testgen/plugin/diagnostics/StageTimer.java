@@ -0,0 +1,67 @@
+package com.testgen.plugin.diagnostics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures one stage on the current thread: wall time and bytes allocated.
+ * The result is committed as a JFR event and fed to {@link GenerationStatistics}.
+ *
+ *   try (StageTimer ignored = StageTimer.start(GenerationStage.ANALYZE, className)) {
+ *       ...
+ *   }
+ */
+public final class StageTimer implements AutoCloseable {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final GenerationStage stage;
+    private final String className;
+    private final GenerationStageEvent event = new GenerationStageEvent();
+    private final long startNanos;
+    private final long startAllocated;
+
+    private StageTimer(GenerationStage stage, String className) {
+        this.stage          = stage;
+        this.className      = className;
+        this.startAllocated = allocatedBytes();
+        event.begin();
+        this.startNanos     = System.nanoTime();
+    }
+
+    public static StageTimer start(GenerationStage stage, String className) {
+        return new StageTimer(stage, className);
+    }
+
+    @Override
+    public void close() {
+        long durationNanos = System.nanoTime() - startNanos;
+        event.end();
+        long allocated = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+
+        if (event.shouldCommit()) {
+            event.stage          = stage.name();
+            event.className      = className;
+            event.allocatedBytes = allocated;
+            event.commit();
+        }
+        GenerationStatistics.getInstance().record(stage, durationNanos, allocated);
+    }
+
+    // ── Allocation counter ────────────────────────────────────────────────
+
+    /** Bytes allocated so far by the current thread, or -1 if the JVM can't tell. */
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+}
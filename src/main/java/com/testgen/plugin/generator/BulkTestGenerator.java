@@ -0,0 +1,241 @@
+package com.testgen.plugin.generator;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.testgen.plugin.index.TestableClassIndex;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.settings.TestGeneratorSettings;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Generates tests for every concrete class under a set of directories
+ * (a package, or all source roots of a module).
+ *
+ * Pipeline:
+ *   1. Collect Java files under the selection         (VFS only, no PSI)
+ *   2. Look up their testable classes   (fork-join, TestableClassIndex per file)
+ *      and keep only methods changed since the last run (GeneratedSignatures)
+ *   3. Generate the test sources          (fork-join, one String per file)
+ *   4. Resolve test files, compare existing ones           (read action)
+ *   5. Write all files                 (EDT, one write action, one undo step)
+ *
+ * Files without testable classes are skipped by the index lookup and never
+ * parsed. A class whose test file exists and whose signatures are all
+ * unchanged is reported as up to date and not generated at all. Steps 1–4
+ * run on a background thread ({@link #analyze}, {@link #generate},
+ * {@link #prepare}); only step 5, {@link #write}, runs on the EDT, and it
+ * neither generates nor reads files: the write lock is held for VFS writes
+ * and merges only.
+ */
+public class BulkTestGenerator {
+
+    private final Project project;
+
+    public BulkTestGenerator(Project project) {
+        this.project = project;
+    }
+
+    /** One analyzed class, waiting for its test to be generated and written. */
+    public static class AnalyzedClass {
+        private final VirtualFile sourceFile;
+        private final ServiceClassInfo info;        // all public methods
+        private final ServiceClassInfo toGenerate;  // the ones that need a test
+
+        public AnalyzedClass(VirtualFile sourceFile, ServiceClassInfo info,
+                             ServiceClassInfo toGenerate) {
+            this.sourceFile = sourceFile;
+            this.info       = info;
+            this.toGenerate = toGenerate;
+        }
+
+        public VirtualFile getSourceFile()      { return sourceFile; }
+        public ServiceClassInfo getInfo()       { return info; }
+        public ServiceClassInfo getToGenerate() { return toGenerate; }
+        public boolean isUpToDate()             { return toGenerate.publicMethods().isEmpty(); }
+    }
+
+    // ── Background part ────────────────────────────────────────────────────
+
+    /**
+     * Collects and analyzes. Must not be called on the EDT.
+     * Results are sorted by qualified class name so runs are reproducible.
+     */
+    public List<AnalyzedClass> analyze(List<SmartPsiElementPointer<PsiDirectory>> roots,
+                                        ProgressIndicator indicator) {
+        // ── 1. Collect ────────────────────────────────────────────────────
+        indicator.setText("Collecting Java files…");
+        List<VirtualFile> files = ReadAction
+            .nonBlocking(() -> collectJavaFiles(roots))
+            .inSmartMode(project)
+            .wrapProgress(indicator)
+            .expireWith(project)
+            .executeSynchronously();
+        if (files.isEmpty()) return List.of();
+
+        // ── 2. Analyze (parallel index lookups) ───────────────────────────
+        indicator.setText("Analyzing " + files.size() + " files…");
+        indicator.setIndeterminate(false);
+        DumbService dumbService = DumbService.getInstance(project);
+        GeneratedSignatures signatures = GeneratedSignatures.getInstance(project);
+        TestFileWriter writer = new TestFileWriter(project);
+        Queue<AnalyzedClass> analyzed = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(files, indicator, file -> dumbService.runReadActionInSmartMode(() -> {
+            if (!file.isValid()) return;
+            for (ServiceClassInfo info : TestableClassIndex.getClassesInFile(project, file).values()) {
+                // A missing test file is always generated in full
+                ServiceClassInfo toGenerate = writer.findExistingTestFile(file, info) == null
+                    ? info
+                    : info.withMethods(signatures.changedMethods(info));
+                analyzed.add(new AnalyzedClass(file, info, toGenerate));
+            }
+        }));
+
+        List<AnalyzedClass> results = new ArrayList<>(analyzed);
+        results.sort(Comparator.comparing(t -> t.info.qualifiedName()));
+        return results;
+    }
+
+    /**
+     * Generates the test source of every class that isn't up to date, in
+     * parallel. Must not be called on the EDT; needs no read action.
+     * Returns class → source, in the order of {@code classes}.
+     */
+    public Map<AnalyzedClass, String> generate(List<AnalyzedClass> classes, ProgressIndicator indicator) {
+        List<AnalyzedClass> outdated = new ArrayList<>();
+        for (AnalyzedClass analyzed : classes) {
+            if (!analyzed.isUpToDate()) outdated.add(analyzed);
+        }
+        if (outdated.isEmpty()) return Map.of();
+
+        indicator.setText("Generating " + outdated.size() + " test files…");
+        indicator.setIndeterminate(false);
+        // Sequential within a class: the classes already run concurrently
+        TestCodeGenerator generator = new TestCodeGenerator(TestGeneratorSettings.getInstance());
+        Map<AnalyzedClass, String> sources = new ConcurrentHashMap<>();
+        runConcurrently(outdated, indicator,
+                        analyzed -> sources.put(analyzed, generator.generate(analyzed.toGenerate)));
+
+        Map<AnalyzedClass, String> ordered = new LinkedHashMap<>();
+        for (AnalyzedClass analyzed : outdated) {
+            ordered.put(analyzed, sources.get(analyzed));
+        }
+        return ordered;
+    }
+
+    /** Generated sources resolved to their test files, ready for {@link #write}. */
+    public static final class Prepared {
+        private final TestFileWriter.Batch batch;
+        private final Map<TestFileWriter.Request, AnalyzedClass> classes;
+
+        private Prepared(TestFileWriter.Batch batch, Map<TestFileWriter.Request, AnalyzedClass> classes) {
+            this.batch   = batch;
+            this.classes = classes;
+        }
+
+        public boolean isEmpty() { return classes.isEmpty(); }
+    }
+
+    /**
+     * Resolves the test file of every source from {@link #generate} and
+     * compares existing files with it (see {@link TestFileWriter#prepareTestFiles}).
+     * Call inside a read action, off the EDT.
+     */
+    public Prepared prepare(Map<AnalyzedClass, String> sources) {
+        Map<TestFileWriter.Request, String> requests = new LinkedHashMap<>();
+        Map<TestFileWriter.Request, AnalyzedClass> classes = new HashMap<>();
+        for (Map.Entry<AnalyzedClass, String> entry : sources.entrySet()) {
+            AnalyzedClass analyzed = entry.getKey();
+            TestFileWriter.Request request = new TestFileWriter.Request(analyzed.sourceFile, analyzed.toGenerate);
+            requests.put(request, entry.getValue());
+            classes.put(request, analyzed);
+        }
+        return new Prepared(new TestFileWriter(project).prepareTestFiles(requests), classes);
+    }
+
+    // ── EDT part ───────────────────────────────────────────────────────────
+
+    /**
+     * Writes the files from {@link #prepare} as one undoable command
+     * (see {@link TestFileWriter#writeTestFiles}), then records the classes'
+     * signatures: those of the test files created or updated, and of those
+     * found to already contain exactly the generated source.
+     */
+    public TestFileWriter.WriteResult write(Prepared prepared) {
+        return write(prepared, true);
+    }
+
+    /** Same as above; see {@link TestFileWriter#writeTestFiles(TestFileWriter.Batch, boolean)}. */
+    public TestFileWriter.WriteResult write(Prepared prepared, boolean userCommand) {
+        if (prepared.isEmpty()) return new TestFileWriter.WriteResult(List.of(), List.of());
+
+        TestFileWriter.WriteResult result =
+            new TestFileWriter(project).writeTestFiles(prepared.batch, userCommand);
+
+        GeneratedSignatures signatures = GeneratedSignatures.getInstance(project);
+        for (TestFileWriter.Request request : result.written()) {
+            signatures.record(prepared.classes.get(request).info);
+        }
+        for (TestFileWriter.Request request : result.unchanged()) {
+            signatures.record(prepared.classes.get(request).info);
+        }
+        return result;
+    }
+
+    // ── File collection ────────────────────────────────────────────────────
+
+    private List<VirtualFile> collectJavaFiles(List<SmartPsiElementPointer<PsiDirectory>> roots) {
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        Set<VirtualFile> result = new LinkedHashSet<>();
+
+        for (SmartPsiElementPointer<PsiDirectory> root : roots) {
+            PsiDirectory dir = root.getElement();
+            if (dir == null) continue;
+            VfsUtilCore.iterateChildrenRecursively(
+                dir.getVirtualFile(),
+                // Never generate tests for tests
+                file -> !fileIndex.isInTestSourceContent(file),
+                file -> {
+                    if (!file.isDirectory() && file.getFileType() == JavaFileType.INSTANCE) {
+                        result.add(file);
+                    }
+                    return true;
+                });
+        }
+        return new ArrayList<>(result);
+    }
+
+    // ── Utilities ──────────────────────────────────────────────────────────
+
+    private interface Step<T> {
+        void run(T item);
+    }
+
+    /** Fans {@code items} out over the shared fork-join pool. */
+    private <T> void runConcurrently(List<T> items, ProgressIndicator indicator, Step<T> step) {
+        int total = items.size();
+        int[] done = {0};
+        boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(
+            items, indicator, item -> {
+                step.run(item);
+                synchronized (done) {
+                    indicator.setFraction(++done[0] / (double) total);
+                }
+                return true;
+            });
+        if (!completed) throw new ProcessCanceledException();
+    }
+}
@@ -0,0 +1,414 @@
+package com.testgen.plugin.generator;
+
+import com.intellij.codeInsight.ExceptionUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.PsiUtil;
+import com.testgen.plugin.model.ServiceClassInfo.DependencyCall;
+import com.testgen.plugin.model.ServiceClassInfo.FieldInfo;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Finds the calls each method of a class makes on the class's injected
+ * dependencies — {@code userRepository.findById(id)} — so generated tests
+ * can stub and verify those exact calls.
+ *
+ * Calls into the class's own methods (helpers, overloads) are followed, and
+ * in full mode into the source methods it inherits too.
+ * Each method is walked at most once per collector and the result kept in
+ * a per-class call map, so a private helper shared by fifty public methods
+ * costs one walk, not fifty. In syntactic mode dependencies are matched by
+ * field name and own methods by name and argument count; nothing resolves.
+ *
+ * A call the method may complete without making — in an if branch, a loop
+ * body, a lambda, a catch block, after an early return — is marked
+ * conditional: a test can stub it leniently but not verify it.
+ *
+ * In full mode each call also lists which of the calling method's
+ * exceptions it can be stubbed to throw: Mockito rejects a checked
+ * exception the callee doesn't declare, and the test builds the exception
+ * from a message, so it needs a String constructor.
+ */
+final class DependencyCallCollector {
+
+    private final PsiClass psiClass;
+    private final Map<String, FieldInfo> dependencies = new HashMap<>();
+    private final boolean syntacticOnly;
+    private final Function<PsiType, String> typeNames;
+
+    /** The per-class call map: method → calls it makes, directly or via helpers. */
+    private final Map<PsiMethod, List<Site>> calls = new HashMap<>();
+    private final Set<PsiMethod> walking = new HashSet<>();
+    /** Block → index of its first statement that may return or throw, -1 if none. */
+    private final Map<PsiCodeBlock, Integer> firstExits = new HashMap<>();
+
+    DependencyCallCollector(PsiClass psiClass, List<FieldInfo> injectedFields,
+                            boolean syntacticOnly, Function<PsiType, String> typeNames) {
+        this.psiClass      = psiClass;
+        this.syntacticOnly = syntacticOnly;
+        this.typeNames     = typeNames;
+        for (FieldInfo field : injectedFields) {
+            dependencies.put(field.fieldName(), field);
+        }
+    }
+
+    /** A call and the dependency method it resolves to, if it does. */
+    private record Site(DependencyCall call, PsiMethod callee) {}
+
+    /**
+     * Dependency calls made by {@code method}, in the order they appear.
+     *
+     * @param exceptions how {@code method}'s thrown types are written, in
+     *                   throws-clause order
+     */
+    List<DependencyCall> collect(PsiMethod method, List<String> exceptions) {
+        List<Site> sites = sites(method);
+        if (sites.isEmpty()) return List.of();
+
+        PsiClassType[] thrown = method.getThrowsList().getReferencedTypes();
+        List<DependencyCall> result = new ArrayList<>(sites.size());
+        for (Site site : sites) {
+            List<String> throwable = new ArrayList<>();
+            for (int i = 0; i < thrown.length && !syntacticOnly; i++) {
+                if (canThrow(site.callee(), thrown[i])) throwable.add(exceptions.get(i));
+            }
+            DependencyCall call = site.call();
+            result.add(throwable.isEmpty() ? call
+                : new DependencyCall(call.fieldName(), call.methodName(), call.argTypes(),
+                                     call.returnType(), call.conditional(), throwable));
+        }
+        return result;
+    }
+
+    /** Calls made by {@code method}, directly or via helpers; computed once per method. */
+    private List<Site> sites(PsiMethod method) {
+        if (dependencies.isEmpty()) return List.of();
+
+        List<Site> known = calls.get(method);
+        if (known != null) return known;
+        if (!walking.add(method)) return List.of(); // recursion: already being walked
+
+        // Keyed by the call as if always made, so a call made both ways is kept once
+        Map<DependencyCall, Site> found = new LinkedHashMap<>();
+        PsiCodeBlock body = method.getBody();
+        if (body != null) {
+            body.accept(new JavaRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitMethodCallExpression(PsiMethodCallExpression call) {
+                    super.visitMethodCallExpression(call); // arguments run first
+                    visitCall(method, body, call, found);
+                }
+            });
+        }
+        walking.remove(method);
+
+        List<Site> result = List.copyOf(found.values());
+        calls.put(method, result);
+        return result;
+    }
+
+    // ── One call site ─────────────────────────────────────────────────────
+
+    private void visitCall(PsiMethod scope, PsiCodeBlock body, PsiMethodCallExpression call,
+                           Map<DependencyCall, Site> found) {
+        PsiReferenceExpression callee = call.getMethodExpression();
+        String name = callee.getReferenceName();
+        if (name == null) return;
+
+        PsiExpression qualifier = callee.getQualifierExpression();
+        if (qualifier == null || isThis(qualifier) || !syntacticOnly && isSuper(qualifier)) {
+            PsiMethod own = findOwnMethod(call, name);
+            if (own == null) return;
+            boolean conditional = isConditional(call, body);
+            for (Site made : sites(own)) {
+                add(found, conditional && !made.call().conditional()
+                    ? new Site(withConditional(made.call(), true), made.callee()) : made);
+            }
+            return;
+        }
+
+        FieldInfo dependency = dependencyOf(qualifier, scope);
+        if (dependency == null) return;
+        List<String> argTypes = argTypes(call, scope);
+        if (argTypes == null) return; // can't be matched safely
+        add(found, new Site(new DependencyCall(dependency.fieldName(), name, argTypes,
+                                               returnType(call, scope), isConditional(call, body)),
+                            syntacticOnly ? null : call.resolveMethod()));
+    }
+
+    private static void add(Map<DependencyCall, Site> found, Site site) {
+        DependencyCall call = site.call();
+        DependencyCall key = call.conditional() ? withConditional(call, false) : call;
+        found.merge(key, site, (known, added) -> known.call().conditional() ? added : known);
+    }
+
+    private static DependencyCall withConditional(DependencyCall call, boolean conditional) {
+        return new DependencyCall(call.fieldName(), call.methodName(), call.argTypes(),
+                                  call.returnType(), conditional);
+    }
+
+    /** The injected field {@code qualifier} refers to — {@code repo} or {@code this.repo}. */
+    private FieldInfo dependencyOf(PsiExpression qualifier, PsiMethod scope) {
+        qualifier = PsiUtil.skipParenthesizedExprDown(qualifier);
+        if (!(qualifier instanceof PsiReferenceExpression)) return null;
+        PsiReferenceExpression ref = (PsiReferenceExpression) qualifier;
+
+        PsiExpression outer = ref.getQualifierExpression();
+        if (outer != null && !isThis(outer)) return null;
+
+        FieldInfo dependency = dependencies.get(ref.getReferenceName());
+        if (dependency == null) return null;
+
+        if (syntacticOnly) {
+            // A parameter of the same name shadows the field
+            if (outer == null && findParameter(scope, ref.getReferenceName()) != null) return null;
+            return dependency;
+        }
+        PsiElement target = ref.resolve();
+        return target instanceof PsiField && isOwnOrInherited(((PsiField) target).getContainingClass())
+            ? dependency : null;
+    }
+
+    private PsiMethod findOwnMethod(PsiMethodCallExpression call, String name) {
+        if (!syntacticOnly) {
+            PsiMethod target = call.resolveMethod();
+            return target != null && isOwnOrInherited(target.getContainingClass()) ? target : null;
+        }
+        int argCount = call.getArgumentList().getExpressionCount();
+        PsiMethod match = null;
+        for (PsiMethod candidate : psiClass.findMethodsByName(name, false)) {
+            int paramCount = candidate.getParameterList().getParametersCount();
+            if (paramCount == argCount || candidate.isVarArgs() && argCount >= paramCount - 1) {
+                if (match != null) return null; // ambiguous without resolving
+                match = candidate;
+            }
+        }
+        return match;
+    }
+
+    // ── Types ─────────────────────────────────────────────────────────────
+
+    /**
+     * The argument types, "" where unknown; null if an unknown one could be
+     * a primitive, which any() can't match (it returns null, and unboxing
+     * that throws before the stub is even registered).
+     */
+    private List<String> argTypes(PsiMethodCallExpression call, PsiMethod scope) {
+        PsiExpression[] args = call.getArgumentList().getExpressions();
+        if (args.length == 0) return List.of();
+
+        PsiParameter[] targetParams = null;
+        if (!syntacticOnly) {
+            PsiMethod target = call.resolveMethod();
+            if (target != null && !target.isVarArgs()
+                    && target.getParameterList().getParametersCount() == args.length) {
+                targetParams = target.getParameterList().getParameters();
+            }
+        }
+
+        List<String> types = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            if (targetParams != null) {
+                // Only picks the matcher, never written out: not recorded for imports
+                types.add(TypeNameSimplifier.simplify(targetParams[i].getType()));
+                continue;
+            }
+            PsiExpression arg = PsiUtil.skipParenthesizedExprDown(args[i]);
+            String type = arg == null ? "" : argType(arg, scope);
+            if (type == null) return null;
+            types.add(type);
+        }
+        return types;
+    }
+
+    /** One argument's type, "" if unknown, null if unknown and possibly primitive. */
+    private String argType(PsiExpression arg, PsiMethod scope) {
+        // A literal's type comes from its token, so it is known in either mode
+        if (!syntacticOnly || arg instanceof PsiLiteralExpression) {
+            PsiType type = arg.getType();
+            if (PsiTypes.nullType().equals(type)) return "";
+            if (type != null) return TypeNameSimplifier.simplify(type, !syntacticOnly);
+        }
+        if (syntacticOnly && arg instanceof PsiReferenceExpression
+                && !((PsiReferenceExpression) arg).isQualified()) {
+            // Syntactic: a parameter of the caller has a known type
+            PsiParameter param = findParameter(scope, ((PsiReferenceExpression) arg).getReferenceName());
+            if (param != null) return typeNames.apply(param.getType());
+        }
+        // Only these are never primitive: size + 1, list.size(), a ? 1 : 2 may be
+        return arg instanceof PsiNewExpression
+                || arg instanceof PsiFunctionalExpression
+                || arg instanceof PsiClassObjectAccessExpression
+                || arg instanceof PsiThisExpression
+            ? "" : null;
+    }
+
+    private String returnType(PsiMethodCallExpression call, PsiMethod scope) {
+        if (!syntacticOnly) {
+            PsiType type = call.getType();
+            if (type == null) return "";
+            if (PsiTypes.voidType().equals(type)) return "void";
+            // A bare type variable (T, ID) can't be instantiated in a test
+            if (type instanceof PsiClassType
+                    && ((PsiClassType) type).resolve() instanceof PsiTypeParameter) return "";
+            return typeNames.apply(type);
+        }
+
+        // Syntactic: only known from where the result goes
+        PsiElement parent = PsiUtil.skipParenthesizedExprUp(call.getParent());
+        if (parent instanceof PsiLocalVariable) {
+            PsiLocalVariable variable = (PsiLocalVariable) parent;
+            PsiTypeElement typeElement = variable.getTypeElement();
+            return typeElement.isInferredType() ? "" : typeNames.apply(variable.getType());
+        }
+        if (parent instanceof PsiReturnStatement
+                && PsiTreeUtil.getParentOfType(call, PsiMethod.class, PsiLambdaExpression.class) == scope) {
+            PsiType type = scope.getReturnType();
+            return type == null || PsiTypes.voidType().equals(type) ? "" : typeNames.apply(type);
+        }
+        return "";
+    }
+
+    // ── Exceptions ────────────────────────────────────────────────────────
+
+    /**
+     * True if a test can make a call to {@code callee} (null: unresolved)
+     * throw {@code new exception("…")}.
+     */
+    private static boolean canThrow(PsiMethod callee, PsiClassType exception) {
+        PsiClass exceptionClass = exception.resolve();
+        if (exceptionClass == null || !hasMessageConstructor(exceptionClass)) return false;
+        if (ExceptionUtil.isUncheckedException(exception)) return true;
+        if (callee == null) return false;
+        for (PsiClassType declared : callee.getThrowsList().getReferencedTypes()) {
+            if (declared.isAssignableFrom(exception)) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasMessageConstructor(PsiClass exceptionClass) {
+        if (exceptionClass.hasModifierProperty(PsiModifier.ABSTRACT)) return false;
+        for (PsiMethod constructor : exceptionClass.getConstructors()) {
+            PsiParameter[] params = constructor.getParameterList().getParameters();
+            // Public: the test lives in the service's package, not the exception's
+            if (params.length == 1 && params[0].getType().equalsToText(CommonClassNames.JAVA_LANG_STRING)
+                    && constructor.hasModifierProperty(PsiModifier.PUBLIC)) return true;
+        }
+        return false;
+    }
+
+    // ── Control flow ──────────────────────────────────────────────────────
+
+    /**
+     * True if {@code body} may complete normally without evaluating
+     * {@code call}: it sits in a branch, a loop body, a catch block, a
+     * lambda or local class, or after a statement that may return or throw.
+     */
+    private boolean isConditional(PsiElement call, PsiCodeBlock body) {
+        PsiElement child = call;
+        while (child != body) {
+            PsiElement parent = child.getParent();
+            if (parent == null) return true;
+            if (parent instanceof PsiLambdaExpression || parent instanceof PsiClass
+                    || parent instanceof PsiCatchSection || parent instanceof PsiAssertStatement) {
+                return true;
+            }
+            if (parent instanceof PsiIfStatement
+                    && child != ((PsiIfStatement) parent).getCondition()) return true;
+            if (parent instanceof PsiConditionalExpression
+                    && child != ((PsiConditionalExpression) parent).getCondition()) return true;
+            if (parent instanceof PsiPolyadicExpression && isShortCircuit((PsiPolyadicExpression) parent)
+                    && child != ((PsiPolyadicExpression) parent).getOperands()[0]) return true;
+            if (parent instanceof PsiSwitchBlock && child == ((PsiSwitchBlock) parent).getBody()) return true;
+            if (parent instanceof PsiLoopStatement && isRepeated((PsiLoopStatement) parent, child)) return true;
+            if (parent instanceof PsiCodeBlock && exitsBefore((PsiCodeBlock) parent, child)) return true;
+            child = parent;
+        }
+        return false;
+    }
+
+    private static boolean isShortCircuit(PsiPolyadicExpression expression) {
+        IElementType op = expression.getOperationTokenType();
+        return op == JavaTokenType.ANDAND || op == JavaTokenType.OROR;
+    }
+
+    /** A loop's body and update may run zero times; its first condition and a do-while body run once. */
+    private static boolean isRepeated(PsiLoopStatement loop, PsiElement child) {
+        if (loop instanceof PsiDoWhileStatement) return false;
+        if (loop instanceof PsiForStatement) {
+            PsiForStatement forLoop = (PsiForStatement) loop;
+            return child != forLoop.getInitialization() && child != forLoop.getCondition();
+        }
+        if (loop instanceof PsiWhileStatement) return child != ((PsiWhileStatement) loop).getCondition();
+        if (loop instanceof PsiForeachStatement) return child != ((PsiForeachStatement) loop).getIteratedValue();
+        return true;
+    }
+
+    /** True if a statement of {@code block} before {@code statement} may return or throw. */
+    private boolean exitsBefore(PsiCodeBlock block, PsiElement statement) {
+        int firstExit = firstExits.computeIfAbsent(block, DependencyCallCollector::firstExit);
+        if (firstExit < 0) return false;
+        PsiStatement[] statements = block.getStatements();
+        for (int i = 0; i < firstExit; i++) {
+            if (statements[i] == statement) return false;
+        }
+        return statements[firstExit] != statement;
+    }
+
+    private static int firstExit(PsiCodeBlock block) {
+        PsiStatement[] statements = block.getStatements();
+        for (int i = 0; i < statements.length; i++) {
+            boolean[] exits = {false};
+            statements[i].accept(new JavaRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitReturnStatement(PsiReturnStatement statement) {
+                    exits[0] = true;
+                    stopWalking();
+                }
+
+                @Override
+                public void visitThrowStatement(PsiThrowStatement statement) {
+                    exits[0] = true;
+                    stopWalking();
+                }
+
+                // Exits of their own, not of the block
+                @Override
+                public void visitLambdaExpression(PsiLambdaExpression expression) {}
+
+                @Override
+                public void visitClass(PsiClass aClass) {}
+            });
+            if (exits[0]) return i;
+        }
+        return -1;
+    }
+
+    // ── Utilities ─────────────────────────────────────────────────────────
+
+    /** The class itself or one of its superclasses (whose members it inherits). */
+    private boolean isOwnOrInherited(PsiClass declaringClass) {
+        return declaringClass != null && InheritanceUtil.isInheritorOrSelf(psiClass, declaringClass, true);
+    }
+
+    private static boolean isThis(PsiExpression expression) {
+        return expression instanceof PsiThisExpression
+            && ((PsiThisExpression) expression).getQualifier() == null;
+    }
+
+    private static boolean isSuper(PsiExpression expression) {
+        return expression instanceof PsiSuperExpression
+            && ((PsiSuperExpression) expression).getQualifier() == null;
+    }
+
+    private static PsiParameter findParameter(PsiMethod method, String name) {
+        for (PsiParameter param : method.getParameterList().getParameters()) {
+            if (param.getName().equals(name)) return param;
+        }
+        return null;
+    }
+}
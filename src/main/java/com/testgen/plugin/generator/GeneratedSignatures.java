@@ -0,0 +1,112 @@
+package com.testgen.plugin.generator;
+
+import com.intellij.openapi.components.*;
+import com.intellij.openapi.project.Project;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.MethodInfo;
+import com.testgen.plugin.model.SignatureFingerprint;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-project record of the method signatures each class had when its
+ * test was last generated (see {@link SignatureFingerprint}).
+ *
+ * Bulk and incremental runs ask it for the methods that changed since, so
+ * re-running over a whole module only does work proportional to the diff.
+ * Stored in the project's cache directory, outside version control.
+ */
+@State(
+    name = "JUnitGeneratorSignatures",
+    storages = @Storage(StoragePathMacros.CACHE_FILE)
+)
+@Service(Service.Level.PROJECT)
+public final class GeneratedSignatures implements PersistentStateComponent<GeneratedSignatures.State> {
+
+    public static class State {
+        /** Qualified class name → space-separated hex fingerprints, sorted. */
+        public Map<String, String> classes = new TreeMap<>();
+    }
+
+    /** Qualified class name → sorted fingerprints of all its public methods. */
+    private final Map<String, long[]> fingerprints = new ConcurrentHashMap<>();
+
+    public static GeneratedSignatures getInstance(Project project) {
+        return project.getService(GeneratedSignatures.class);
+    }
+
+    /** True if a test was ever generated for this class. */
+    public boolean isKnown(ServiceClassInfo info) {
+        return fingerprints.containsKey(info.qualifiedName());
+    }
+
+    /**
+     * Methods whose signature — or the class's set of mocks — is not the one
+     * recorded; every method when the class is not known.
+     */
+    public List<MethodInfo> changedMethods(ServiceClassInfo info) {
+        long[] known = fingerprints.get(info.qualifiedName());
+        if (known == null) return info.publicMethods();
+
+        long fieldsFingerprint = SignatureFingerprint.ofFields(info.injectedFields());
+        List<MethodInfo> changed = new ArrayList<>();
+        for (MethodInfo method : info.publicMethods()) {
+            if (Arrays.binarySearch(known, SignatureFingerprint.of(method, fieldsFingerprint)) < 0) {
+                changed.add(method);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Records the current signatures of all public methods — including any
+     * the user chose not to test, so they don't count as changed later.
+     */
+    public void record(ServiceClassInfo info) {
+        long fieldsFingerprint = SignatureFingerprint.ofFields(info.injectedFields());
+        long[] values = new long[info.publicMethods().size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = SignatureFingerprint.of(info.publicMethods().get(i), fieldsFingerprint);
+        }
+        Arrays.sort(values);
+        fingerprints.put(info.qualifiedName(), values);
+    }
+
+    // ── Persistence ────────────────────────────────────────────────────────
+
+    @Override
+    public @NotNull State getState() {
+        State state = new State();
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : fingerprints.entrySet()) {
+            sb.setLength(0);
+            for (long value : entry.getValue()) {
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(Long.toHexString(value));
+            }
+            state.classes.put(entry.getKey(), sb.toString());
+        }
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull State state) {
+        fingerprints.clear();
+        for (Map.Entry<String, String> entry : state.classes.entrySet()) {
+            String text = entry.getValue().trim();
+            String[] parts = text.isEmpty() ? new String[0] : text.split(" ");
+            long[] values = new long[parts.length];
+            try {
+                for (int i = 0; i < parts.length; i++) {
+                    values[i] = Long.parseUnsignedLong(parts[i], 16);
+                }
+            } catch (NumberFormatException e) {
+                continue; // hand-edited or corrupt entry: treat the class as unknown
+            }
+            Arrays.sort(values);
+            fingerprints.put(entry.getKey(), values);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.testgen.plugin.generator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The import block of one generated file: sorted, de-duplicated, and free
+ * of simple-name conflicts.
+ *
+ * Each simple name can be imported once. The first class to claim a name
+ * gets it; a later class with the same simple name is not imported and
+ * must be written fully qualified — {@link #add} says which. Names
+ * declared in the file's own package are claimed with {@link #reserve}.
+ * Callers claim the names they can't qualify (domain types, which are
+ * rendered as simple names) before the ones they can (JUnit, Mockito).
+ */
+final class ImportSet {
+
+    private final Map<String, String> owners = new HashMap<>(); // simple name → qualified name
+    private final TreeSet<String> imports = new TreeSet<>();
+    private final TreeSet<String> staticImports = new TreeSet<>();
+
+    /** Claims {@code simpleName} for a class that needs no import, e.g. one in the same package. */
+    void reserve(String simpleName) {
+        owners.putIfAbsent(simpleName, simpleName);
+    }
+
+    /**
+     * Imports {@code qualifiedName} ("a.b.C", or "a.b.*" on demand) and
+     * returns how to refer to it: the simple name if it is now imported,
+     * the qualified name if that simple name was already taken.
+     */
+    String add(String qualifiedName) {
+        if (qualifiedName.endsWith(".*")) {
+            imports.add(qualifiedName);
+            return qualifiedName;
+        }
+        String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+        String owner = owners.putIfAbsent(simpleName, qualifiedName);
+        if (owner != null && !owner.equals(qualifiedName)) return qualifiedName;
+        imports.add(qualifiedName);
+        return simpleName;
+    }
+
+    /** The imported classes and on-demand packages, sorted. */
+    List<String> importedNames() {
+        return new ArrayList<>(imports);
+    }
+
+    /** e.g. "org.mockito.Mockito.*" */
+    void addStatic(String member) {
+        staticImports.add(member);
+    }
+
+    /** Regular imports, then static ones, each block sorted. */
+    void appendTo(Appendable sb) throws IOException {
+        for (String imp : imports) {
+            sb.append("import ").append(imp).append(";\n");
+        }
+        if (!imports.isEmpty() && !staticImports.isEmpty()) sb.append("\n");
+        for (String imp : staticImports) {
+            sb.append("import static ").append(imp).append(";\n");
+        }
+        sb.append("\n");
+    }
+}
@@ -1,6 +1,13 @@
 package com.testgen.plugin.generator;
 
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiUtil;
 import com.testgen.plugin.model.ServiceClassInfo;
 import com.testgen.plugin.model.ServiceClassInfo.*;
@@ -10,32 +17,257 @@ import java.util.*;
 /**
  * Reads a PsiClass and extracts everything the test generator needs:
  *  - injected dependencies (@Autowired fields OR constructor params)
- *  - all public non-static methods
+ *  - all public non-static methods, inherited ones included
  *  - method parameters and thrown exceptions
+ *  - the calls each method makes on those dependencies
+ *  - the imports a test needs for all the types above
+ *
+ * In syntactic mode nothing is resolved: annotations are matched by their
+ * short name and class types by the name they are written with. That mode is what the file
+ * index uses, since indexers may only look at the file's own content.
+ * Imports are then taken from the file's own import statements: every
+ * on-demand import, and the single-type imports of names the types use.
+ *
+ * {@link #analyzeFile} covers a whole file — secondary top-level and static
+ * nested classes included — with one traversal that gathers every class's
+ * members on the way, instead of asking each class for its fields,
+ * constructors and methods separately.
+ *
+ * In full mode the superclass chain is walked too, as far as it is in
+ * source: inherited @Autowired fields and concrete public methods are
+ * merged in, with the subclass's type arguments applied. What a superclass
+ * passes on is computed once and cached on it until the PSI changes, so
+ * hundreds of services extending the same base share one analysis of it.
+ * Syntactic mode can't resolve a superclass and sees declared members only.
  */
 public class PsiClassAnalyzer {
 
+    private static final Set<String> INJECT_ANNOTATIONS = Set.of(
+        "org.springframework.beans.factory.annotation.Autowired",
+        "javax.inject.Inject",
+        "jakarta.inject.Inject",
+        "javax.annotation.Resource");
+
+    private static final Set<String> INJECT_ANNOTATION_SHORT_NAMES = Set.of(
+        "Autowired", "Inject", "Resource");
+
+    private static final Key<CachedValue<ServiceClassInfo>> CACHED_INFO =
+        Key.create("com.testgen.plugin.ServiceClassInfo");
+
+    private static final Key<CachedValue<Map<String, ServiceClassInfo>>> CACHED_FILE_INFO =
+        Key.create("com.testgen.plugin.FileServiceClassInfo");
+
+    private static final Key<CachedValue<Inherited>> CACHED_INHERITED =
+        Key.create("com.testgen.plugin.InheritedMembers");
+
+    private final boolean syntacticOnly;
+
+    /** Full analysis — resolves references, so it needs smart mode. */
+    public PsiClassAnalyzer() {
+        this(false);
+    }
+
+    public PsiClassAnalyzer(boolean syntacticOnly) {
+        this.syntacticOnly = syntacticOnly;
+    }
+
     /**
      * Entry point. Returns null if the class is not a valid service
      * (e.g. it's an interface or annotation).
+     *
+     * Full-mode results are cached on the PsiClass until its file changes,
+     * so repeated calls on an unchanged class are a map lookup. The returned
+     * info is shared — treat it as read-only.
      */
     public ServiceClassInfo analyze(PsiClass psiClass) {
         if (psiClass == null || psiClass.isInterface() || psiClass.isAnnotationType()) {
             return null;
         }
+        // Indexers must not touch user-data caches, and syntactic results
+        // differ from full ones, so only full mode is cached
+        if (syntacticOnly) return computeInfo(psiClass, Members.of(psiClass));
+
+        return CachedValuesManager.getCachedValue(psiClass, CACHED_INFO, () ->
+            CachedValueProvider.Result.create(computeInfo(psiClass, Members.of(psiClass)),
+                                              dependencies(psiClass.getContainingFile(), List.of(psiClass))));
+    }
+
+    /**
+     * Analyzes every testable class in {@code file} (see {@link #isTestableClass}),
+     * nested ones included, in one pass over the file.
+     *
+     * Returns class qualified name (e.g. "com.example.Handlers.CreateHandler")
+     * → info, in file order. Full-mode results are cached on the file until
+     * it changes; treat them as read-only.
+     */
+    public Map<String, ServiceClassInfo> analyzeFile(PsiJavaFile file) {
+        if (syntacticOnly) return computeFileInfo(collectClasses(file));
+
+        return CachedValuesManager.getCachedValue(file, CACHED_FILE_INFO, () -> {
+            Map<PsiClass, Members> classes = collectClasses(file);
+            return CachedValueProvider.Result.create(computeFileInfo(classes),
+                                                     dependencies(file, classes.keySet()));
+        });
+    }
+
+    /**
+     * True if a testable class in {@code file} inherits members from a source
+     * superclass — i.e. if its syntactic analysis misses some. Needs smart mode.
+     */
+    public boolean hasInheritingClass(PsiJavaFile file) {
+        return hasInheritingClass(file.getClasses());
+    }
+
+    private boolean hasInheritingClass(PsiClass[] classes) {
+        for (PsiClass psiClass : classes) {
+            if (isTestableClass(psiClass) && sourceSuperclass(psiClass) != null) return true;
+            if (hasInheritingClass(psiClass.getInnerClasses())) return true;
+        }
+        return false;
+    }
+
+    /** One traversal: every testable class and its own members, in file order. */
+    private Map<PsiClass, Members> collectClasses(PsiJavaFile file) {
+        Map<PsiClass, Members> classes = new LinkedHashMap<>();
+        file.accept(new JavaRecursiveElementWalkingVisitor() {
+            private Members current;
+
+            @Override
+            public void visitClass(PsiClass psiClass) {
+                if (psiClass instanceof PsiTypeParameter) return;
+                Members members = new Members();
+                if (isTestableClass(psiClass)) classes.put(psiClass, members);
+
+                Members outer = current;
+                current = members;
+                super.visitClass(psiClass); // members, then nested classes
+                current = outer;
+            }
+
+            // Members are recorded, not descended into: bodies are only
+            // walked later, for the public methods, by DependencyCallCollector
+
+            @Override
+            public void visitField(PsiField field) {
+                if (current != null) current.fields.add(field);
+            }
+
+            @Override
+            public void visitMethod(PsiMethod method) {
+                if (current == null) return;
+                (method.isConstructor() ? current.constructors : current.methods).add(method);
+            }
 
+            @Override
+            public void visitClassInitializer(PsiClassInitializer initializer) {}
+
+            @Override
+            public void visitDocComment(PsiDocComment comment) {}
+        });
+        return classes;
+    }
+
+    /** Analyzes each class from its recorded members, keyed by qualified name. */
+    private Map<String, ServiceClassInfo> computeFileInfo(Map<PsiClass, Members> classes) {
+        Map<String, ServiceClassInfo> result = new LinkedHashMap<>();
+        for (Map.Entry<PsiClass, Members> entry : classes.entrySet()) {
+            String qName = entry.getKey().getQualifiedName();
+            if (qName != null) result.put(qName, computeInfo(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /** A class's own fields, constructors and methods, in declaration order. */
+    private static final class Members {
+        final List<PsiField> fields        = new ArrayList<>();
+        final List<PsiMethod> constructors = new ArrayList<>();
+        final List<PsiMethod> methods      = new ArrayList<>();
+
+        static Members of(PsiClass psiClass) {
+            Members members = new Members();
+            Collections.addAll(members.fields, psiClass.getFields());
+            Collections.addAll(members.constructors, psiClass.getConstructors());
+            for (PsiMethod method : psiClass.getMethods()) {
+                if (!method.isConstructor()) members.methods.add(method);
+            }
+            return members;
+        }
+    }
+
+    private ServiceClassInfo computeInfo(PsiClass psiClass, Members members) {
         String packageName = getPackageName(psiClass);
-        String className   = psiClass.getName();
+        String className   = getClassName(psiClass);
+        // Every resolved class met (full mode), each simple name claimed by
+        // one of them; the others are written fully qualified. The class's
+        // own top-level name and its test's come first: the test refers to
+        // both unqualified
+        ImportSet names = new ImportSet();
+        if (!syntacticOnly) {
+            names.add(topLevelClass(psiClass));
+            names.reserve(ServiceClassInfo.testClassName(className));
+        }
+        Inherited inherited = syntacticOnly ? Inherited.NONE : inheritedBy(psiClass, names);
 
-        List<FieldInfo>  injectedFields = extractInjectedFields(psiClass);
-        List<MethodInfo> publicMethods  = extractPublicMethods(psiClass);
+        List<FieldInfo> injectedFields = mergeFields(
+            extractInjectedFields(members.fields, names), inherited.injectedFields());
 
         // If no @Autowired fields found, try constructor injection
         if (injectedFields.isEmpty()) {
-            injectedFields = extractConstructorInjectedFields(psiClass);
+            // None declared: the class may still have a generated one (e.g. Lombok's)
+            List<PsiMethod> constructors = members.constructors.isEmpty()
+                ? Arrays.asList(psiClass.getConstructors())
+                : members.constructors;
+            injectedFields = extractConstructorInjectedFields(constructors, names);
         }
 
-        return new ServiceClassInfo(packageName, className, injectedFields, publicMethods);
+        DependencyCallCollector calls = new DependencyCallCollector(
+            psiClass, injectedFields, syntacticOnly, type -> getSimpleTypeName(type, names));
+        List<MethodInfo> publicMethods = mergeMethods(
+            extractPublicMethods(members.methods, calls, names), inherited.methods());
+
+        List<String> imports = syntacticOnly
+            ? importsFromFile(psiClass, injectedFields, publicMethods)
+            : importsFor(names.importedNames(), packageName);
+
+        return new ServiceClassInfo(packageName, className, injectedFields, publicMethods, imports);
+    }
+
+    /**
+     * What a full-mode result depends on: its file — and, once a source
+     * superclass contributes members, any PSI change, since it may be in another file.
+     */
+    private static Object[] dependencies(PsiFile file, Collection<PsiClass> classes) {
+        for (PsiClass psiClass : classes) {
+            if (sourceSuperclass(psiClass) != null) {
+                return new Object[] {file, PsiModificationTracker.getInstance(file.getProject())};
+            }
+        }
+        return new Object[] {file};
+    }
+
+    /**
+     * True for classes worth generating a test for: named, non-abstract,
+     * not an interface, annotation or enum, and either top-level or a
+     * static nested class that a test in the same package can instantiate.
+     */
+    public boolean isTestableClass(PsiClass psiClass) {
+        return psiClass.getName() != null
+            && !psiClass.isInterface()
+            && !psiClass.isAnnotationType()
+            && !psiClass.isEnum()
+            && !psiClass.hasModifierProperty(PsiModifier.ABSTRACT)
+            && !PsiUtil.isLocalClass(psiClass)
+            && isVisibleFromPackage(psiClass);
+    }
+
+    /** Top-level, or nested static and non-private all the way out. */
+    private static boolean isVisibleFromPackage(PsiClass psiClass) {
+        for (PsiClass c = psiClass; c.getContainingClass() != null; c = c.getContainingClass()) {
+            if (c.hasModifierProperty(PsiModifier.PRIVATE)) return false;
+            // An inner class needs an enclosing instance @InjectMocks can't supply
+            if (!c.hasModifierProperty(PsiModifier.STATIC)) return false;
+        }
+        return true;
     }
 
     // ── Package ────────────────────────────────────────────────────────────
@@ -48,13 +280,27 @@ public class PsiClassAnalyzer {
         return "";
     }
 
+    /** "com.example.Handlers" for com.example.Handlers.Create */
+    private static String topLevelClass(PsiClass psiClass) {
+        PsiClass outer = psiClass;
+        while (outer.getContainingClass() != null) outer = outer.getContainingClass();
+        String qName = outer.getQualifiedName();
+        return qName != null ? qName : String.valueOf(outer.getName());
+    }
+
+    /** The name within the package: "UserService", or "Handlers.Create" for a nested class. */
+    private static String getClassName(PsiClass psiClass) {
+        PsiClass outer = psiClass.getContainingClass();
+        return outer == null ? psiClass.getName() : getClassName(outer) + "." + psiClass.getName();
+    }
+
     // ── Injected fields (@Autowired / @Inject / @Resource) ────────────────
 
-    private List<FieldInfo> extractInjectedFields(PsiClass psiClass) {
+    private List<FieldInfo> extractInjectedFields(List<PsiField> declared, ImportSet names) {
         List<FieldInfo> fields = new ArrayList<>();
-        for (PsiField field : psiClass.getFields()) {
+        for (PsiField field : declared) {
             if (isInjected(field)) {
-                String typeName  = getSimpleTypeName(field.getType());
+                String typeName  = getSimpleTypeName(field.getType(), names);
                 String fieldName = field.getName();
                 fields.add(new FieldInfo(typeName, fieldName));
             }
@@ -64,13 +310,15 @@ public class PsiClassAnalyzer {
 
     private boolean isInjected(PsiField field) {
         for (PsiAnnotation ann : field.getAnnotations()) {
-            String qName = ann.getQualifiedName();
-            if (qName != null && (
-                    qName.equals("org.springframework.beans.factory.annotation.Autowired") ||
-                    qName.equals("javax.inject.Inject") ||
-                    qName.equals("jakarta.inject.Inject") ||
-                    qName.equals("javax.annotation.Resource"))) {
-                return true;
+            if (syntacticOnly) {
+                PsiJavaCodeReferenceElement ref = ann.getNameReferenceElement();
+                String shortName = ref == null ? null : ref.getReferenceName();
+                if (shortName != null && INJECT_ANNOTATION_SHORT_NAMES.contains(shortName)) {
+                    return true;
+                }
+            } else {
+                String qName = ann.getQualifiedName();
+                if (qName != null && INJECT_ANNOTATIONS.contains(qName)) return true;
             }
         }
         return false;
@@ -78,12 +326,13 @@ public class PsiClassAnalyzer {
 
     // ── Constructor injection ──────────────────────────────────────────────
 
-    private List<FieldInfo> extractConstructorInjectedFields(PsiClass psiClass) {
+    private List<FieldInfo> extractConstructorInjectedFields(List<PsiMethod> constructors,
+                                                             ImportSet names) {
         List<FieldInfo> fields = new ArrayList<>();
 
         // Find the largest constructor (most likely the injected one)
         PsiMethod bestCtor = null;
-        for (PsiMethod method : psiClass.getConstructors()) {
+        for (PsiMethod method : constructors) {
             if (bestCtor == null ||
                     method.getParameterList().getParametersCount() >
                     bestCtor.getParameterList().getParametersCount()) {
@@ -93,7 +342,7 @@ public class PsiClassAnalyzer {
 
         if (bestCtor != null) {
             for (PsiParameter param : bestCtor.getParameterList().getParameters()) {
-                String typeName  = getSimpleTypeName(param.getType());
+                String typeName  = getSimpleTypeName(param.getType(), names);
                 String fieldName = param.getName();
                 fields.add(new FieldInfo(typeName, fieldName));
             }
@@ -103,24 +352,26 @@ public class PsiClassAnalyzer {
 
     // ── Public methods ─────────────────────────────────────────────────────
 
-    private List<MethodInfo> extractPublicMethods(PsiClass psiClass) {
+    private List<MethodInfo> extractPublicMethods(List<PsiMethod> declared, DependencyCallCollector calls,
+                                                  ImportSet names) {
         List<MethodInfo> methods = new ArrayList<>();
 
-        for (PsiMethod method : psiClass.getMethods()) {
+        for (PsiMethod method : declared) {
             // Skip constructors, private, static, and Object methods
             if (method.isConstructor()) continue;
             if (!method.hasModifierProperty(PsiModifier.PUBLIC)) continue;
             if (method.hasModifierProperty(PsiModifier.STATIC)) continue;
+            if (method.hasModifierProperty(PsiModifier.ABSTRACT)) continue; // a base's: implemented below
             if (isObjectMethod(method.getName())) continue;
 
-            String returnType = getReturnTypeString(method);
+            String returnType = getReturnTypeString(method, names);
             boolean isVoid    = returnType.equals("void");
 
-            List<ParamInfo> params = extractParams(method);
-            List<String> exceptions = extractExceptions(method);
+            List<ParamInfo> params = extractParams(method, names);
+            List<String> exceptions = extractExceptions(method, names);
 
             methods.add(new MethodInfo(
-                method.getName(), returnType, isVoid, params, exceptions
+                method.getName(), returnType, isVoid, params, exceptions, calls.collect(method, exceptions)
             ));
         }
         return methods;
@@ -132,40 +383,290 @@ public class PsiClassAnalyzer {
                   .contains(name);
     }
 
-    private String getReturnTypeString(PsiMethod method) {
+    private String getReturnTypeString(PsiMethod method, ImportSet names) {
         PsiType returnType = method.getReturnType();
         if (returnType == null || PsiTypes.voidType().equals(returnType)) return "void";
-        return getSimpleTypeName(returnType);
+        return getSimpleTypeName(returnType, names);
     }
 
-    private List<ParamInfo> extractParams(PsiMethod method) {
+    private List<ParamInfo> extractParams(PsiMethod method, ImportSet names) {
         List<ParamInfo> params = new ArrayList<>();
         for (PsiParameter param : method.getParameterList().getParameters()) {
             params.add(new ParamInfo(
-                getSimpleTypeName(param.getType()),
+                getSimpleTypeName(param.getType(), names),
                 param.getName()
             ));
         }
         return params;
     }
 
-    private List<String> extractExceptions(PsiMethod method) {
+    private List<String> extractExceptions(PsiMethod method, ImportSet names) {
         List<String> exceptions = new ArrayList<>();
         for (PsiClassType ex : method.getThrowsList().getReferencedTypes()) {
-            exceptions.add(ex.getClassName());
+            exceptions.add(getSimpleTypeName(ex, names));
         }
         return exceptions;
     }
 
+    // ── Inherited members (full mode) ──────────────────────────────────────
+
+    /**
+     * What a class passes on to its subclasses: its @Autowired fields and
+     * concrete public methods, plus what it inherits itself — written in
+     * terms of its own type parameters, so one result serves every subclass.
+     */
+    private record Inherited(List<FieldInfo> injectedFields,
+                             List<MethodInfo> methods,
+                             Set<String> qualifiedNames) { // for the subclass's imports
+
+        static final Inherited NONE = new Inherited(List.of(), List.of(), Set.of());
+    }
+
+    /** The members {@code psiClass} inherits, with its type arguments applied. */
+    private Inherited inheritedBy(PsiClass psiClass, ImportSet names) {
+        PsiClass superClass = sourceSuperclass(psiClass);
+        if (superClass == null) return Inherited.NONE;
+
+        Inherited contribution = CachedValuesManager.getCachedValue(superClass, CACHED_INHERITED, () ->
+            CachedValueProvider.Result.create(computeContribution(superClass),
+                                              PsiModificationTracker.getInstance(superClass.getProject())));
+
+        // The inherited types claim their simple names before the class's
+        // own are rendered; one already taken is spelled out in full
+        Map<String, String> substitution = new HashMap<>();
+        for (String qName : contribution.qualifiedNames()) {
+            String simpleName = StringUtil.getShortName(qName);
+            if (!names.add(qName).equals(simpleName)) substitution.put(simpleName, qName);
+        }
+        substitution.putAll(typeArguments(psiClass, superClass, names));
+        return substitute(contribution, substitution);
+    }
+
+    private Inherited computeContribution(PsiClass superClass) {
+        Members members = Members.of(superClass);
+        ImportSet names = new ImportSet();
+        names.add(topLevelClass(superClass));
+        Inherited inherited = inheritedBy(superClass, names);
+
+        List<FieldInfo> injectedFields = mergeFields(
+            extractInjectedFields(members.fields, names), inherited.injectedFields());
+        // Only field injection is inherited, but a base's own calls are
+        // still matched against its constructor-injected dependencies
+        List<FieldInfo> dependencies = injectedFields.isEmpty()
+            ? extractConstructorInjectedFields(members.constructors, names)
+            : injectedFields;
+
+        DependencyCallCollector calls = new DependencyCallCollector(
+            superClass, dependencies, false, type -> getSimpleTypeName(type, names));
+        List<MethodInfo> methods = mergeMethods(
+            extractPublicMethods(members.methods, calls, names), inherited.methods());
+
+        return new Inherited(injectedFields, methods, Set.copyOf(names.importedNames()));
+    }
+
+    /** The superclass, if it is in source; library classes and Object contribute nothing. */
+    private static PsiClass sourceSuperclass(PsiClass psiClass) {
+        if (psiClass.isInterface() || psiClass.isAnnotationType()) return null;
+        PsiClass superClass = psiClass.getSuperClass();
+        if (superClass == null || superClass instanceof PsiCompiledElement
+                || CommonClassNames.JAVA_LANG_OBJECT.equals(superClass.getQualifiedName())) return null;
+        // A cyclic hierarchy doesn't compile, but must not loop here either
+        return superClass.isInheritor(psiClass, true) ? null : superClass;
+    }
+
+    /** Superclass type parameter → the argument {@code psiClass} extends it with. */
+    private Map<String, String> typeArguments(PsiClass psiClass, PsiClass superClass,
+                                              ImportSet names) {
+        PsiTypeParameter[] typeParameters = superClass.getTypeParameters();
+        if (typeParameters.length == 0) return Map.of();
+
+        PsiType[] arguments = PsiType.EMPTY_ARRAY;
+        for (PsiClassType type : psiClass.getExtendsListTypes()) {
+            if (superClass.equals(type.resolve())) arguments = type.getParameters();
+        }
+        Map<String, String> substitution = new HashMap<>();
+        for (int i = 0; i < typeParameters.length; i++) {
+            // Raw supertype: the parameters are erased
+            substitution.put(typeParameters[i].getName(), arguments.length == typeParameters.length
+                ? getSimpleTypeName(arguments[i], names)
+                : "Object");
+        }
+        return substitution;
+    }
+
+    private static Inherited substitute(Inherited inherited, Map<String, String> substitution) {
+        if (substitution.isEmpty()) return inherited;
+
+        List<FieldInfo> fields = new ArrayList<>();
+        for (FieldInfo field : inherited.injectedFields()) {
+            fields.add(new FieldInfo(substitute(field.typeName(), substitution), field.fieldName()));
+        }
+        List<MethodInfo> methods = new ArrayList<>();
+        for (MethodInfo method : inherited.methods()) {
+            List<ParamInfo> params = new ArrayList<>();
+            for (ParamInfo param : method.params()) {
+                params.add(new ParamInfo(substitute(param.typeName(), substitution), param.paramName()));
+            }
+            List<String> exceptions = new ArrayList<>();
+            for (String ex : method.thrownExceptions()) {
+                exceptions.add(substitute(ex, substitution));
+            }
+            List<DependencyCall> calls = new ArrayList<>();
+            for (DependencyCall call : method.dependencyCalls()) {
+                List<String> argTypes = new ArrayList<>();
+                for (String argType : call.argTypes()) {
+                    argTypes.add(substitute(argType, substitution));
+                }
+                List<String> throwable = new ArrayList<>();
+                for (String ex : call.throwable()) {
+                    throwable.add(substitute(ex, substitution));
+                }
+                calls.add(new DependencyCall(call.fieldName(), call.methodName(), argTypes,
+                                             substitute(call.returnType(), substitution),
+                                             call.conditional(), throwable));
+            }
+            methods.add(new MethodInfo(method.methodName(), substitute(method.returnType(), substitution),
+                                       method.isVoid(), params, exceptions, calls));
+        }
+        return new Inherited(fields, methods, inherited.qualifiedNames());
+    }
+
+    /** Replaces the type-parameter names in a rendered type: "Optional<T>" → "Optional<User>". */
+    private static String substitute(String typeName, Map<String, String> substitution) {
+        StringBuilder sb = new StringBuilder(typeName.length());
+        int i = 0;
+        int length = typeName.length();
+        while (i < length) {
+            if (!Character.isJavaIdentifierStart(typeName.charAt(i))) {
+                sb.append(typeName.charAt(i++));
+                continue;
+            }
+            int start = i;
+            while (i < length && Character.isJavaIdentifierPart(typeName.charAt(i))) i++;
+            String name = typeName.substring(start, i);
+            String replacement = start == 0 || typeName.charAt(start - 1) != '.'
+                ? substitution.get(name) : null;
+            sb.append(replacement != null ? replacement : name);
+        }
+        return sb.toString();
+    }
+
+    /** Own fields, then inherited ones not shadowed by a field of the same name. */
+    private static List<FieldInfo> mergeFields(List<FieldInfo> own, List<FieldInfo> inherited) {
+        if (inherited.isEmpty()) return own;
+        List<FieldInfo> merged = new ArrayList<>(own);
+        Set<String> names = new HashSet<>();
+        for (FieldInfo field : own) names.add(field.fieldName());
+        for (FieldInfo field : inherited) {
+            if (names.add(field.fieldName())) merged.add(field);
+        }
+        return merged;
+    }
+
+    /** Own methods, then inherited ones not overridden (same name and parameter types). */
+    private static List<MethodInfo> mergeMethods(List<MethodInfo> own, List<MethodInfo> inherited) {
+        if (inherited.isEmpty()) return own;
+        List<MethodInfo> merged = new ArrayList<>(own);
+        Set<String> signatures = new HashSet<>();
+        for (MethodInfo method : own) signatures.add(signatureOf(method));
+        for (MethodInfo method : inherited) {
+            if (signatures.add(signatureOf(method))) merged.add(method);
+        }
+        return merged;
+    }
+
+    private static String signatureOf(MethodInfo method) {
+        StringBuilder sb = new StringBuilder(method.methodName()).append('(');
+        for (ParamInfo param : method.params()) {
+            sb.append(param.typeName()).append(',');
+        }
+        return sb.append(')').toString();
+    }
+
+    // ── Imports ────────────────────────────────────────────────────────────
+
+    /** Full mode: the resolved classes, minus java.lang and the class's own package. */
+    private List<String> importsFor(Collection<String> qualifiedNames, String packageName) {
+        Set<String> imports = new TreeSet<>();
+        for (String qName : qualifiedNames) {
+            int dot = qName.lastIndexOf('.');
+            if (dot < 0) continue; // default package: can't be imported
+            String pkg = qName.substring(0, dot);
+            if (!pkg.equals("java.lang") && !pkg.equals(packageName)) imports.add(qName);
+        }
+        return new ArrayList<>(imports);
+    }
+
+    /** Syntactic mode: the file's imports that the extracted types can refer to. */
+    private List<String> importsFromFile(PsiClass psiClass, List<FieldInfo> fields,
+                                         List<MethodInfo> methods) {
+        PsiFile file = psiClass.getContainingFile();
+        PsiImportList importList = file instanceof PsiJavaFile ? ((PsiJavaFile) file).getImportList() : null;
+        if (importList == null) return List.of();
+
+        Set<String> usedNames = new HashSet<>();
+        for (FieldInfo field : fields) addSimpleNames(field.typeName(), usedNames);
+        for (MethodInfo method : methods) {
+            addSimpleNames(method.returnType(), usedNames);
+            for (ParamInfo param : method.params()) addSimpleNames(param.typeName(), usedNames);
+            for (String ex : method.thrownExceptions()) addSimpleNames(ex, usedNames);
+            for (DependencyCall call : method.dependencyCalls()) addSimpleNames(call.returnType(), usedNames);
+        }
+
+        Set<String> imports = new TreeSet<>();
+        // Nested classes of this file that its types name
+        addNestedClasses(((PsiJavaFile) file).getClasses(), usedNames, imports);
+
+        for (PsiImportStatement statement : importList.getImportStatements()) {
+            PsiJavaCodeReferenceElement ref = statement.getImportReference();
+            String qName = ref == null ? null : ref.getQualifiedName();
+            if (qName == null) continue;
+            if (statement.isOnDemand()) {
+                if (!qName.equals("java.lang")) imports.add(qName + ".*");
+            } else if (usedNames.contains(qName.substring(qName.lastIndexOf('.') + 1))) {
+                imports.add(qName);
+            }
+        }
+        return new ArrayList<>(imports);
+    }
+
+    private static void addNestedClasses(PsiClass[] classes, Set<String> usedNames, Set<String> imports) {
+        for (PsiClass psiClass : classes) {
+            PsiClass[] inner = psiClass.getInnerClasses();
+            for (PsiClass nested : inner) {
+                String qName = nested.getQualifiedName();
+                if (qName != null && usedNames.contains(nested.getName())) imports.add(qName);
+            }
+            addNestedClasses(inner, usedNames, imports);
+        }
+    }
+
+    /** Adds the leading simple names in a type: "Map<String, Outer.Inner>" → Map, String, Outer. */
+    private static void addSimpleNames(String typeName, Set<String> names) {
+        int i = 0;
+        int length = typeName.length();
+        while (i < length) {
+            if (!Character.isJavaIdentifierStart(typeName.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && Character.isJavaIdentifierPart(typeName.charAt(i))) i++;
+            if (start == 0 || typeName.charAt(start - 1) != '.') {
+                names.add(typeName.substring(start, i));
+            }
+        }
+    }
+
     // ── Utility ────────────────────────────────────────────────────────────
 
     /**
      * Returns the simple type name without package, preserving generics.
      * e.g. java.util.List<com.example.User> → List<User>
+     * In full mode, the classes it names claim their simple names in
+     * {@code names}; one whose name is already taken is written qualified.
      */
-    private String getSimpleTypeName(PsiType type) {
-        String canonical = type.getCanonicalText();
-        // Strip package names from all segments
-        return canonical.replaceAll("\\b[a-z][a-zA-Z0-9_]*(?:\\.[a-z][a-zA-Z0-9_]*)*\\.([A-Z])", "$1");
+    private String getSimpleTypeName(PsiType type, ImportSet names) {
+        return TypeNameSimplifier.simplify(type, !syntacticOnly, syntacticOnly ? null : names);
     }
 }
@@ -3,8 +3,14 @@ package com.testgen.plugin.generator;
 import com.testgen.plugin.model.ServiceClassInfo;
 import com.testgen.plugin.model.ServiceClassInfo.*;
 import com.testgen.plugin.settings.TestGeneratorSettings;
+import com.testgen.plugin.settings.TestNamingPattern;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Pure Java string-builder that produces a complete JUnit 5 + Mockito
@@ -42,121 +48,218 @@ import java.util.*;
  */
 public class TestCodeGenerator {
 
+    /** A good method count from which to generate a class's tests in parallel. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+    /** Methods generated per parallel round — bounds what a streaming caller buffers. */
+    private static final int PARALLEL_CHUNK = 512;
+
     private final TestGeneratorSettings settings;
+    private final Executor executor;             // null: always sequential
+    private final int parallelThreshold;
 
+    /**
+     * Generates every class sequentially. Bulk generation uses this: it
+     * already runs classes concurrently, under progress.
+     */
     public TestCodeGenerator(TestGeneratorSettings settings) {
-        this.settings = settings;
+        this(settings, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Generates the tests of large classes method by method on {@code executor}.
+     * The executor is the caller's: it decides the pool, its bounds and what
+     * cancelling means, and must not be one the caller itself is running on.
+     *
+     * @param parallelThreshold method count from which to go parallel; Integer.MAX_VALUE never does
+     */
+    public TestCodeGenerator(TestGeneratorSettings settings, Executor executor, int parallelThreshold) {
+        this.settings          = settings;
+        this.executor          = executor;
+        this.parallelThreshold = parallelThreshold;
     }
 
     public String generate(ServiceClassInfo info) {
         StringBuilder sb = new StringBuilder();
+        try {
+            generate(info, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
 
+    /**
+     * Streams the test class into {@code sb} — typically a Writer over the
+     * target file — so nothing proportional to the output is kept on heap
+     * (classes generated in parallel buffer at most one chunk of methods).
+     */
+    public void generate(ServiceClassInfo info, Appendable sb) throws IOException {
         appendPackage(sb, info);
-        appendImports(sb, info);
-        appendClassDeclaration(sb, info);
-        appendFields(sb, info);
-        appendSetUp(sb);
-        appendTestMethods(sb, info);
+        FrameworkNames names = appendImports(sb, info);
+        appendClassDeclaration(sb, info, names);
+        appendFields(sb, info, names);
+        appendSetUp(sb, names);
+        appendTestMethods(sb, info, names);
         sb.append("}\n");
-
-        return sb.toString();
     }
 
     // ── Package ────────────────────────────────────────────────────────────
 
-    private void appendPackage(StringBuilder sb, ServiceClassInfo info) {
-        if (!info.getPackageName().isEmpty()) {
-            sb.append("package ").append(info.getPackageName()).append(";\n\n");
+    private void appendPackage(Appendable sb, ServiceClassInfo info) throws IOException {
+        if (!info.packageName().isEmpty()) {
+            sb.append("package ").append(info.packageName()).append(";\n\n");
         }
     }
 
     // ── Imports ────────────────────────────────────────────────────────────
 
-    private void appendImports(StringBuilder sb, ServiceClassInfo info) {
-        Set<String> imports = new LinkedHashSet<>();
-
-        // JUnit 5
-        imports.add("org.junit.jupiter.api.BeforeEach");
-        imports.add("org.junit.jupiter.api.Test");
-        imports.add("org.junit.jupiter.api.extension.ExtendWith");
-        imports.add("static org.junit.jupiter.api.Assertions.*");
-
-        // Mockito
-        imports.add("org.mockito.InjectMocks");
-        imports.add("org.mockito.Mock");
-        imports.add("org.mockito.MockitoAnnotations");
-        imports.add("org.mockito.junit.jupiter.MockitoExtension");
-        imports.add("static org.mockito.Mockito.*");
-
-        // Add exception imports for methods that throw
-        for (MethodInfo method : info.getPublicMethods()) {
-            if (!method.getThrownExceptions().isEmpty()) {
-                imports.add("org.junit.jupiter.api.Assertions.assertThrows");
-            }
+    /** How the file refers to each JUnit / Mockito type: simple or qualified name. */
+    private record FrameworkNames(String test, String beforeEach, String extendWith,
+                                  String mock, String injectMocks,
+                                  String mockitoAnnotations, String mockitoExtension) {}
+
+    private FrameworkNames appendImports(Appendable sb, ServiceClassInfo info) throws IOException {
+        ImportSet imports = new ImportSet();
+
+        // Same package, never imported; a nested class is written Outer.Inner
+        String className = info.className();
+        imports.reserve(className.contains(".") ? className.substring(0, className.indexOf('.')) : className);
+        imports.reserve(info.testClassName());
+
+        // Domain types claim names first; the analyzer already wrote any
+        // that clash with each other or with the two names above qualified
+        // and left them out of info.imports(), so each of these is imported.
+        // A framework type whose name is taken is written qualified
+        for (String imp : info.imports()) {
+            imports.add(imp);
         }
 
-        for (String imp : imports) {
-            sb.append("import ").append(imp).append(";\n");
-        }
-        sb.append("\n");
+        FrameworkNames names = new FrameworkNames(
+            // JUnit 5
+            imports.add("org.junit.jupiter.api.Test"),
+            imports.add("org.junit.jupiter.api.BeforeEach"),
+            imports.add("org.junit.jupiter.api.extension.ExtendWith"),
+            // Mockito
+            imports.add("org.mockito.Mock"),
+            imports.add("org.mockito.InjectMocks"),
+            imports.add("org.mockito.MockitoAnnotations"),
+            imports.add("org.mockito.junit.jupiter.MockitoExtension"));
+
+        // assertThrows, assertNotNull, … and when, verify, any, mock, …
+        imports.addStatic("org.junit.jupiter.api.Assertions.*");
+        imports.addStatic("org.mockito.Mockito.*");
+
+        imports.appendTo(sb);
+        return names;
     }
 
     // ── Class declaration ─────────────────────────────────────────────────
 
-    private void appendClassDeclaration(StringBuilder sb, ServiceClassInfo info) {
-        sb.append("@ExtendWith(MockitoExtension.class)\n");
-        sb.append("class ").append(info.getClassName()).append("Test {\n\n");
+    private void appendClassDeclaration(Appendable sb, ServiceClassInfo info,
+                                        FrameworkNames names) throws IOException {
+        sb.append("@").append(names.extendWith())
+          .append("(").append(names.mockitoExtension()).append(".class)\n");
+        sb.append("class ").append(info.testClassName()).append(" {\n\n");
     }
 
     // ── @Mock fields + @InjectMocks ───────────────────────────────────────
 
-    private void appendFields(StringBuilder sb, ServiceClassInfo info) {
-        for (FieldInfo field : info.getInjectedFields()) {
-            sb.append("    @Mock\n");
-            sb.append("    private ").append(field.getTypeName())
-              .append(" ").append(field.getFieldName()).append(";\n\n");
+    private void appendFields(Appendable sb, ServiceClassInfo info,
+                              FrameworkNames names) throws IOException {
+        for (FieldInfo field : info.injectedFields()) {
+            sb.append("    @").append(names.mock()).append("\n");
+            sb.append("    private ").append(field.typeName())
+              .append(" ").append(field.fieldName()).append(";\n\n");
         }
 
-        sb.append("    @InjectMocks\n");
-        sb.append("    private ").append(info.getClassName())
-          .append(" ").append(decapitalize(info.getClassName())).append(";\n\n");
+        sb.append("    @").append(names.injectMocks()).append("\n");
+        sb.append("    private ").append(info.className())
+          .append(" ").append(decapitalize(info.simpleName())).append(";\n\n");
     }
 
     // ── @BeforeEach setUp ─────────────────────────────────────────────────
 
-    private void appendSetUp(StringBuilder sb) {
-        sb.append("    @BeforeEach\n");
+    private void appendSetUp(Appendable sb, FrameworkNames names) throws IOException {
+        sb.append("    @").append(names.beforeEach()).append("\n");
         sb.append("    void setUp() {\n");
-        sb.append("        MockitoAnnotations.openMocks(this);\n");
+        sb.append("        ").append(names.mockitoAnnotations()).append(".openMocks(this);\n");
         sb.append("    }\n\n");
     }
 
     // ── Test methods ──────────────────────────────────────────────────────
 
-    private void appendTestMethods(StringBuilder sb, ServiceClassInfo info) {
-        String serviceVar = decapitalize(info.getClassName());
+    private void appendTestMethods(Appendable sb, ServiceClassInfo info,
+                                   FrameworkNames names) throws IOException {
+        String serviceVar = decapitalize(info.simpleName());
+        TestNamingPattern naming = settings.getCompiledNamingPattern(); // once per class
+        List<MethodInfo> methods = info.publicMethods();
 
-        for (MethodInfo method : info.getPublicMethods()) {
-            // Happy path test
-            appendHappyPathTest(sb, method, serviceVar, info);
+        if (executor == null || methods.size() < parallelThreshold) {
+            for (MethodInfo method : methods) {
+                appendTestsFor(sb, method, serviceVar, info, naming, names);
+            }
+            return;
+        }
 
-            // Exception test (if method declares thrown exceptions)
-            for (String ex : method.getThrownExceptions()) {
-                appendExceptionTest(sb, method, ex, serviceVar, info);
+        // Facades: each method's tests go into their own buffer on the
+        // executor, and the buffers are appended in declaration order — the
+        // output is byte-identical to the loop above
+        for (int from = 0; from < methods.size(); from += PARALLEL_CHUNK) {
+            List<MethodInfo> chunk = methods.subList(from, Math.min(from + PARALLEL_CHUNK, methods.size()));
+            List<CompletableFuture<String>> tests = new ArrayList<>(chunk.size());
+            for (MethodInfo method : chunk) {
+                tests.add(CompletableFuture.supplyAsync(
+                    () -> testsFor(method, serviceVar, info, naming, names), executor));
+            }
+            try {
+                for (CompletableFuture<String> test : tests) {
+                    sb.append(test.join());
+                }
+            } catch (CompletionException e) {
+                for (CompletableFuture<String> test : tests) test.cancel(false);
+                // Rethrown as is, so a cancellation from the executor stays one
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                throw e;
             }
         }
     }
 
-    private void appendHappyPathTest(StringBuilder sb, MethodInfo method,
-                                      String serviceVar, ServiceClassInfo info) {
-        String testName = buildTestName(method.getMethodName(), "shouldSucceed");
-        sb.append("    @Test\n");
+    private String testsFor(MethodInfo method, String serviceVar, ServiceClassInfo info,
+                            TestNamingPattern naming, FrameworkNames names) {
+        StringBuilder buffer = new StringBuilder(1024);
+        try {
+            appendTestsFor(buffer, method, serviceVar, info, naming, names);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return buffer.toString();
+    }
+
+    private void appendTestsFor(Appendable sb, MethodInfo method, String serviceVar,
+                                ServiceClassInfo info, TestNamingPattern naming,
+                                FrameworkNames names) throws IOException {
+        // Happy path test
+        appendHappyPathTest(sb, method, serviceVar, info, naming, names);
+
+        // Exception test (if method declares thrown exceptions)
+        for (String ex : method.thrownExceptions()) {
+            appendExceptionTest(sb, method, ex, serviceVar, info, naming, names);
+        }
+    }
+
+    private void appendHappyPathTest(Appendable sb, MethodInfo method,
+                                      String serviceVar, ServiceClassInfo info,
+                                      TestNamingPattern naming, FrameworkNames names) throws IOException {
+        String testName = naming.format(info.simpleName(), method, "Succeed");
+        sb.append("    @").append(names.test()).append("\n");
         sb.append("    void ").append(testName).append("() {\n");
 
         // Arrange
         sb.append("        // Arrange\n");
         appendParamDeclarations(sb, method);
-        appendMockStubbing(sb, method, info);
+        appendMockStubbing(sb, method);
 
         // Act
         sb.append("\n        // Act\n");
@@ -164,34 +267,37 @@ public class TestCodeGenerator {
 
         // Assert
         sb.append("\n        // Assert\n");
-        appendAssertions(sb, method, info);
+        appendAssertions(sb, method);
 
         sb.append("    }\n\n");
     }
 
-    private void appendExceptionTest(StringBuilder sb, MethodInfo method,
+    private void appendExceptionTest(Appendable sb, MethodInfo method,
                                       String exceptionType, String serviceVar,
-                                      ServiceClassInfo info) {
-        String testName = buildTestName(method.getMethodName(),
-                                        "shouldThrow" + exceptionType);
-        sb.append("    @Test\n");
+                                      ServiceClassInfo info, TestNamingPattern naming,
+                                      FrameworkNames names) throws IOException {
+        String testName = naming.format(info.simpleName(), method, "Throw" + exceptionType);
+        sb.append("    @").append(names.test()).append("\n");
         sb.append("    void ").append(testName).append("() {\n");
 
         sb.append("        // Arrange\n");
         appendParamDeclarations(sb, method);
 
-        // Stub first mock to throw
-        if (!info.getInjectedFields().isEmpty()) {
-            FieldInfo firstDep = info.getInjectedFields().get(0);
+        // Make the first call the method always makes, and that can throw it, throw
+        DependencyCall call = firstThrowing(method, exceptionType);
+        if (call != null) {
             sb.append("        doThrow(new ").append(exceptionType)
-              .append("(\"test error\")).when(").append(firstDep.getFieldName())
-              .append(")").append(buildAnyMethodMock(method, firstDep)).append(";\n");
+              .append("(\"test error\")).when(").append(call.fieldName())
+              .append(").").append(call.methodName()).append("(")
+              .append(buildMatchers(call)).append(");\n");
+        } else {
+            sb.append("        // TODO: make a dependency throw ").append(exceptionType).append("\n");
         }
 
         sb.append("\n        // Act & Assert\n");
         sb.append("        assertThrows(").append(exceptionType).append(".class, () ->\n");
         sb.append("            ").append(serviceVar).append(".")
-          .append(method.getMethodName()).append("(")
+          .append(method.methodName()).append("(")
           .append(buildArgList(method)).append("));\n");
 
         sb.append("    }\n\n");
@@ -199,61 +305,56 @@ public class TestCodeGenerator {
 
     // ── Arrange helpers ───────────────────────────────────────────────────
 
-    private void appendParamDeclarations(StringBuilder sb, MethodInfo method) {
-        for (ParamInfo param : method.getParams()) {
+    private void appendParamDeclarations(Appendable sb, MethodInfo method) throws IOException {
+        for (ParamInfo param : method.params()) {
             sb.append("        ")
-              .append(param.getTypeName()).append(" ")
-              .append(param.getParamName()).append(" = ")
-              .append(defaultValueFor(param.getTypeName())).append(";\n");
+              .append(param.typeName()).append(" ")
+              .append(param.paramName()).append(" = ")
+              .append(defaultValueFor(param.typeName())).append(";\n");
         }
     }
 
-    private void appendMockStubbing(StringBuilder sb, MethodInfo method,
-                                     ServiceClassInfo info) {
-        // Only stub if method is non-void (something needs to be returned)
-        if (!method.isVoid() && !info.getInjectedFields().isEmpty()) {
-            FieldInfo dep = info.getInjectedFields().get(0);
-            String mockReturn = defaultValueFor(method.getReturnType());
-            sb.append("        when(").append(dep.getFieldName())
-              .append(buildAnyMethodMock(method, dep))
-              .append(").thenReturn(").append(mockReturn).append(");\n");
+    private void appendMockStubbing(Appendable sb, MethodInfo method) throws IOException {
+        // Only calls that return something, of a type we can build a value for;
+        // Mockito's default answer covers the rest. A conditional call may go
+        // unused, which strict stubs would report, so it is stubbed leniently
+        for (DependencyCall call : method.dependencyCalls()) {
+            if (!call.hasKnownResult()) continue;
+            sb.append(call.conditional() ? "        lenient().when(" : "        when(")
+              .append(call.fieldName()).append(".")
+              .append(call.methodName()).append("(").append(buildMatchers(call))
+              .append(")).thenReturn(").append(defaultValueFor(call.returnType())).append(");\n");
         }
     }
 
     // ── Act helpers ───────────────────────────────────────────────────────
 
-    private void appendActLine(StringBuilder sb, MethodInfo method, String serviceVar) {
+    private void appendActLine(Appendable sb, MethodInfo method,
+                               String serviceVar) throws IOException {
         if (method.isVoid()) {
             sb.append("        ").append(serviceVar).append(".")
-              .append(method.getMethodName()).append("(")
+              .append(method.methodName()).append("(")
               .append(buildArgList(method)).append(");\n");
         } else {
-            sb.append("        ").append(method.getReturnType())
+            sb.append("        ").append(method.returnType())
               .append(" result = ").append(serviceVar).append(".")
-              .append(method.getMethodName()).append("(")
+              .append(method.methodName()).append("(")
               .append(buildArgList(method)).append(");\n");
         }
     }
 
     // ── Assert helpers ────────────────────────────────────────────────────
 
-    private void appendAssertions(StringBuilder sb, MethodInfo method,
-                                   ServiceClassInfo info) {
+    private void appendAssertions(Appendable sb, MethodInfo method) throws IOException {
         if (method.isVoid()) {
-            // For void methods, verify interactions
-            if (!info.getInjectedFields().isEmpty()) {
-                for (FieldInfo dep : info.getInjectedFields()) {
-                    sb.append("        verify(").append(dep.getFieldName())
-                      .append(", atLeastOnce()).").append(buildAnyVerify(method, dep))
-                      .append(";\n");
-                }
-            } else {
+            // For void methods, the interactions are the observable effect
+            if (firstAlwaysMade(method) == null) {
                 sb.append("        // TODO: verify expected side effects\n");
             }
         } else {
             sb.append("        assertNotNull(result);\n");
             // Add type-specific assertion
-            String rt = method.getReturnType();
+            String rt = method.returnType();
             if (rt.equals("boolean") || rt.equals("Boolean")) {
                 sb.append("        assertTrue(result); // or assertFalse — adjust to your logic\n");
             } else if (rt.startsWith("List") || rt.startsWith("Collection") || rt.startsWith("Set")) {
@@ -262,42 +363,66 @@ public class TestCodeGenerator {
                 sb.append("        assertTrue(result.isPresent());\n");
             }
         }
+        appendVerifications(sb, method);
     }
 
-    // ── Naming ────────────────────────────────────────────────────────────
+    private void appendVerifications(Appendable sb, MethodInfo method) throws IOException {
+        // A conditional call may rightly not happen with the arranged values
+        for (DependencyCall call : method.dependencyCalls()) {
+            if (call.conditional()) continue;
+            sb.append("        verify(").append(call.fieldName())
+              .append(", atLeastOnce()).").append(call.methodName()).append("(")
+              .append(buildMatchers(call)).append(");\n");
+        }
+    }
+
+    private static DependencyCall firstAlwaysMade(MethodInfo method) {
+        for (DependencyCall call : method.dependencyCalls()) {
+            if (!call.conditional()) return call;
+        }
+        return null;
+    }
 
-    private String buildTestName(String methodName, String suffix) {
-        String pattern = settings.getTestNamingPattern(); // e.g. "{method}_{suffix}"
-        return pattern
-            .replace("{method}", methodName)
-            .replace("{suffix}", suffix);
+    private static DependencyCall firstThrowing(MethodInfo method, String exceptionType) {
+        for (DependencyCall call : method.dependencyCalls()) {
+            if (!call.conditional() && call.throwable().contains(exceptionType)) return call;
+        }
+        return null;
     }
 
     // ── Argument helpers ─────────────────────────────────────────────────
 
     private String buildArgList(MethodInfo method) {
         StringBuilder args = new StringBuilder();
-        for (int i = 0; i < method.getParams().size(); i++) {
+        for (int i = 0; i < method.params().size(); i++) {
             if (i > 0) args.append(", ");
-            args.append(method.getParams().get(i).getParamName());
+            args.append(method.params().get(i).paramName());
         }
         return args.toString();
     }
 
-    private String buildAnyMethodMock(MethodInfo method, FieldInfo dep) {
-        // We don't know exact method name on dep, so use a descriptive placeholder
-        StringBuilder call = new StringBuilder(".someMethod(");
-        for (int i = 0; i < method.getParams().size(); i++) {
-            if (i > 0) call.append(", ");
-            call.append("any()");
+    private String buildMatchers(DependencyCall call) {
+        StringBuilder matchers = new StringBuilder();
+        for (int i = 0; i < call.argTypes().size(); i++) {
+            if (i > 0) matchers.append(", ");
+            matchers.append(matcherFor(call.argTypes().get(i)));
         }
-        call.append(")");
-        return call.toString();
-        // NOTE: user should replace .someMethod with the actual dep method called
+        return matchers.toString();
     }
 
-    private String buildAnyVerify(MethodInfo method, FieldInfo dep) {
-        return "someMethod(any()) /* TODO: replace with actual method */";
+    private String matcherFor(String typeName) {
+        // any() returns null, which can't be unboxed into a primitive parameter
+        return switch (typeName) {
+            case "int"     -> "anyInt()";
+            case "long"    -> "anyLong()";
+            case "double"  -> "anyDouble()";
+            case "float"   -> "anyFloat()";
+            case "boolean" -> "anyBoolean()";
+            case "short"   -> "anyShort()";
+            case "byte"    -> "anyByte()";
+            case "char"    -> "anyChar()";
+            default        -> "any()";
+        };
     }
 
     // ── Default values ────────────────────────────────────────────────────
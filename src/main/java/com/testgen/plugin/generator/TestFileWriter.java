@@ -1,19 +1,45 @@
 package com.testgen.plugin.generator;
 
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.UndoConfirmationPolicy;
 import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.impl.LoadTextUtil;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ContentEntry;
 import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.roots.SourceFolder;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.testgen.plugin.actions.GenerateTestsAction;
 import com.testgen.plugin.model.ServiceClassInfo;
+import org.jetbrains.jps.model.java.JavaSourceRootProperties;
+import org.jetbrains.jps.model.java.JavaSourceRootType;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.*;
 
 /**
  * Writes the generated test source to the correct location:
@@ -35,136 +61,423 @@ public class TestFileWriter {
      */
     public PsiFile writeTestFile(PsiClass sourceClass, String generatedSource,
                                   ServiceClassInfo info) {
-        String testFileName  = info.getClassName() + "Test.java";
-        String packagePath   = info.getPackageName().replace('.', '/');
+        return writeTestFile(sourceClass, generatedSource, info, true);
+    }
 
-        Module module = ModuleUtilCore.findModuleForPsiElement(sourceClass);
-        if (module == null) return null;
+    /**
+     * Same as above; bulk runs pass {@code openAfterWrite = false} so that
+     * hundreds of generated files don't each open an editor tab.
+     */
+    public PsiFile writeTestFile(PsiClass sourceClass, String generatedSource,
+                                  ServiceClassInfo info, boolean openAfterWrite) {
+        PsiFile sourceFile = sourceClass.getContainingFile();
+        if (sourceFile == null || sourceFile.getVirtualFile() == null) return null;
+        return writeTestFile(sourceFile.getVirtualFile(), generatedSource, info, openAfterWrite);
+    }
 
-        VirtualFile testRoot = findOrCreateTestSourceRoot(module);
-        if (testRoot == null) return null;
+    /**
+     * Variant keyed on the source file, for callers that work from the
+     * index and never load the source class's PSI.
+     */
+    public PsiFile writeTestFile(VirtualFile sourceFile, String generatedSource,
+                                  ServiceClassInfo info, boolean openAfterWrite) {
+        Target target = resolve(sourceFile, info, generatedSource);
+        if (target == null) return null;
+
+        if (target.unchanged()) {
+            if (openAfterWrite) openInEditor(target.existing());
+            return PsiManager.getInstance(project).findFile(target.existing());
+        }
 
         return WriteCommandAction.writeCommandAction(project)
             .withName("Generate JUnit Tests")
-            .compute(() -> {
-                try {
-                    // Navigate to / create the package directory
-                    VirtualFile packageDir = VfsUtil.createDirectoryIfMissing(
-                        testRoot, packagePath);
-                    if (packageDir == null) return null;
-
-                    VirtualFile existing = packageDir.findChild(testFileName);
-
-                    if (existing != null) {
-                        // File exists — append only missing test methods
-                        return appendMissingMethods(existing, generatedSource, info);
-                    } else {
-                        // Create brand new file
-                        VirtualFile newFile = packageDir.createChildData(this, testFileName);
-                        VfsUtil.saveText(newFile, generatedSource);
-                        PsiFile psiFile = PsiManager.getInstance(project).findFile(newFile);
-                        openInEditor(newFile);
-                        return psiFile;
-                    }
-                } catch (IOException e) {
-                    throw new RuntimeException("Failed to write test file: " + e.getMessage(), e);
+            .compute(() -> write(target, new HashMap<>(), openAfterWrite));
+    }
+
+    /**
+     * The test file for {@code info} if it already exists, else null.
+     * Never creates anything; call inside a read action.
+     */
+    public VirtualFile findExistingTestFile(VirtualFile sourceFile, ServiceClassInfo info) {
+        Module module = ModuleUtilCore.findModuleForFile(sourceFile, project);
+        if (module == null) return null;
+
+        VirtualFile testRoot = findTestSourceRoot(module);
+        if (testRoot == null) return null;
+
+        String fileName = info.testClassName() + ".java";
+        return testRoot.findFileByRelativePath(info.packageName().isEmpty()
+            ? fileName
+            : info.packageName().replace('.', '/') + "/" + fileName);
+    }
+
+    // ── Batch ─────────────────────────────────────────────────────────────
+
+    /** One test file to generate: the class under test and its source file. */
+    public record Request(VirtualFile sourceFile, ServiceClassInfo info) {}
+
+    /**
+     * A batch of test files resolved by {@link #prepareTestFiles}, waiting
+     * for {@link #writeTestFiles}.
+     */
+    public static final class Batch {
+        private final List<Request> unchanged = new ArrayList<>();
+        private final List<Request> pending   = new ArrayList<>();
+        private final List<Target>  targets   = new ArrayList<>();
+
+        private Batch() {}
+    }
+
+    /**
+     * What {@link #writeTestFiles} did: files created or updated, and files
+     * left alone because they already had exactly the generated text.
+     */
+    public record WriteResult(List<Request> written, List<Request> unchanged) {}
+
+    /**
+     * Resolves where each test file goes and compares existing files with
+     * the generated source, so that {@link #writeTestFiles} only writes.
+     * Reads every existing test file: call inside a read action, off the EDT.
+     *
+     * {@code sources} (request → generated source) must be generated
+     * beforehand. Requests without a module or test root are dropped.
+     */
+    public Batch prepareTestFiles(Map<Request, String> sources) {
+        Batch batch = new Batch();
+        for (Map.Entry<Request, String> entry : sources.entrySet()) {
+            ProgressManager.checkCanceled();
+            Request request = entry.getKey();
+            if (!request.sourceFile().isValid()) continue;
+            Target target = resolve(request.sourceFile(), request.info(), entry.getValue());
+            if (target == null) continue;
+            if (target.unchanged()) {
+                batch.unchanged.add(request);
+            } else {
+                batch.pending.add(request);
+                batch.targets.add(target);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Writes a prepared batch as one undoable command: each test root and
+     * package directory is created once, and all files are written inside a
+     * single write action. Nothing is opened. The write action only touches
+     * the VFS and, for existing files, merges the missing methods.
+     *
+     * Requests whose file could not be written are in neither list.
+     */
+    public WriteResult writeTestFiles(Batch batch) {
+        return writeTestFiles(batch, true);
+    }
+
+    /**
+     * Same as above. Writes the user did not ask for pass
+     * {@code userCommand = false}: they stay out of the global undo stack,
+     * so undo in a source file never reverts them, and undoing them in the
+     * test files asks for confirmation first.
+     */
+    public WriteResult writeTestFiles(Batch batch, boolean userCommand) {
+        List<Request> written = new ArrayList<>(batch.targets.size());
+        WriteResult result = new WriteResult(written, List.copyOf(batch.unchanged));
+        if (batch.targets.isEmpty()) return result;
+
+        WriteCommandAction.Builder command = WriteCommandAction.writeCommandAction(project);
+        command = userCommand
+            ? command.withName("Generate JUnit Tests").withGlobalUndo() // one undo step for all files
+            : command.withName("Update JUnit Tests")
+                     .withUndoConfirmationPolicy(UndoConfirmationPolicy.REQUEST_CONFIRMATION);
+        command.run(() -> {
+            Map<String, VirtualFile> packageDirs = new HashMap<>();
+            for (int i = 0; i < batch.targets.size(); i++) {
+                if (write(batch.targets.get(i), packageDirs, false) != null) {
+                    written.add(batch.pending.get(i));
                 }
-            });
+            }
+        });
+        return result;
+    }
+
+    // ── Resolve + write one file ──────────────────────────────────────────
+
+    /**
+     * Where a test goes; {@code unchanged} means the file already has that
+     * text. {@code testRoot} is null while the root at {@code testRootPath}
+     * has yet to be created.
+     */
+    private record Target(VirtualFile testRoot, String testRootPath, String packagePath,
+                          String fileName, ServiceClassInfo info, String generatedSource,
+                          VirtualFile existing, boolean unchanged) {}
+
+    private Target resolve(VirtualFile sourceFile, ServiceClassInfo info, String generatedSource) {
+        String testFileName  = info.testClassName() + ".java";
+        String packagePath   = info.packageName().replace('.', '/');
+
+        Module module = ModuleUtilCore.findModuleForFile(sourceFile, project);
+        if (module == null) return null;
+
+        // Only located here; a missing fallback root is created by write()
+        TestRoots roots = testRoots(module);
+        VirtualFile testRoot = roots.testRoot() != null && roots.testRoot().isValid()
+            ? roots.testRoot()
+            : null;
+        String testRootPath = testRoot != null ? testRoot.getPath() : roots.fallbackPath();
+        if (testRootPath == null) return null;
+        if (testRoot == null) testRoot = LocalFileSystem.getInstance().findFileByPath(testRootPath);
+
+        // Regenerating an untouched test yields the same text. Leave such a
+        // file alone: no command, no reparse, no VFS event for the indexer
+        // and VCS to react to
+        VirtualFile existing = testRoot == null ? null : testRoot.findFileByRelativePath(
+            packagePath.isEmpty() ? testFileName : packagePath + "/" + testFileName);
+        boolean unchanged = existing != null && hasContent(existing, generatedSource);
+
+        return new Target(testRoot, testRootPath, packagePath, testFileName, info,
+                          generatedSource, existing, unchanged);
+    }
+
+    /** Must run inside a write command. */
+    private PsiFile write(Target target, Map<String, VirtualFile> packageDirs, boolean openAfterWrite) {
+        try {
+            // Navigate to / create the test root and package directory, once per batch
+            String dirKey = target.testRootPath() + "/" + target.packagePath();
+            VirtualFile packageDir = packageDirs.get(dirKey);
+            if (packageDir == null) {
+                VirtualFile testRoot = target.testRoot() != null && target.testRoot().isValid()
+                    ? target.testRoot()
+                    : VfsUtil.createDirectoryIfMissing(target.testRootPath());
+                if (testRoot == null) return null;
+                packageDir = VfsUtil.createDirectoryIfMissing(testRoot, target.packagePath());
+                if (packageDir == null) return null;
+                packageDirs.put(dirKey, packageDir);
+            }
+
+            VirtualFile existing = packageDir.findChild(target.fileName());
+
+            if (existing != null) {
+                // File exists — append only missing test methods
+                return appendMissingMethods(existing, target.generatedSource(), target.info(),
+                                            openAfterWrite);
+            } else {
+                // Create brand new file
+                VirtualFile newFile = packageDir.createChildData(this, target.fileName());
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        newFile.getOutputStream(this), newFile.getCharset()))) {
+                    out.write(target.generatedSource());
+                }
+                PsiFile psiFile = PsiManager.getInstance(project).findFile(newFile);
+                if (openAfterWrite) openInEditor(newFile);
+                return psiFile;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write test file: " + e.getMessage(), e);
+        }
+    }
+
+    /** Compares against the unsaved document if there is one, else the file on disk. */
+    private boolean hasContent(VirtualFile file, CharSequence content) {
+        Document document = FileDocumentManager.getInstance().getCachedDocument(file);
+        CharSequence current = document != null
+            ? document.getImmutableCharSequence()
+            : LoadTextUtil.loadText(file);
+        return StringUtil.equals(current, content);
     }
 
     // ── Append missing methods to existing test file ──────────────────────
 
+    /**
+     * Parses the generated source as PSI and copies every @Test method whose
+     * name is not yet declared in the existing test class, plus any imports
+     * the existing file lacks. Existing methods are never touched. If an
+     * import would clash with one the file already has, nothing is merged
+     * and a warning is shown instead.
+     */
     private PsiFile appendMissingMethods(VirtualFile existingFile,
                                           String generatedSource,
-                                          ServiceClassInfo info) throws IOException {
-        String existing = VfsUtil.loadText(existingFile);
-
-        // Extract test methods from generated source that aren't in existing file
-        StringBuilder toAppend = new StringBuilder();
-        String[] lines = generatedSource.split("\n");
-        boolean inMethod = false;
-        int braceDepth = 0;
-        StringBuilder currentMethod = new StringBuilder();
-        String methodName = null;
-
-        for (String line : lines) {
-            if (!inMethod && line.trim().startsWith("@Test")) {
-                inMethod = true;
-                currentMethod = new StringBuilder();
-                braceDepth = 0;
-            }
+                                          ServiceClassInfo info,
+                                          boolean openAfterWrite) {
+        PsiFile existingPsi = PsiManager.getInstance(project).findFile(existingFile);
+        if (!(existingPsi instanceof PsiJavaFile)) return existingPsi;
 
-            if (inMethod) {
-                currentMethod.append(line).append("\n");
-                for (char c : line.toCharArray()) {
-                    if (c == '{') braceDepth++;
-                    else if (c == '}') braceDepth--;
-                }
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        Document document = documentManager.getDocument(existingPsi);
+        if (document != null) documentManager.commitDocument(document);
 
-                // Capture method name from "void methodName"
-                if (line.trim().startsWith("void ") && methodName == null) {
-                    String trimmed = line.trim();
-                    int start = "void ".length();
-                    int end   = trimmed.indexOf('(');
-                    if (end > start) methodName = trimmed.substring(start, end).trim();
-                }
+        PsiJavaFile existing  = (PsiJavaFile) existingPsi;
+        PsiJavaFile generated = (PsiJavaFile) PsiFileFactory.getInstance(project)
+            .createFileFromText(existingFile.getName(), JavaFileType.INSTANCE, generatedSource);
+
+        String testClassName = info.testClassName();
+        PsiClass existingClass  = findClass(existing, testClassName);
+        PsiClass generatedClass = findClass(generated, testClassName);
+        if (existingClass == null || generatedClass == null) return existingPsi;
 
-                // Method block closed
-                if (braceDepth == 0 && currentMethod.toString().contains("{")) {
-                    inMethod = false;
-                    // Only append if this method name doesn't already exist
-                    if (methodName != null && !existing.contains(methodName + "(")) {
-                        toAppend.append("\n").append(currentMethod);
-                    }
-                    methodName = null;
+        // Single pass over the existing class; lookups below are O(1)
+        Set<String> existingNames = new HashSet<>();
+        for (PsiMethod method : existingClass.getMethods()) {
+            existingNames.add(method.getName());
+        }
+
+        List<PsiMethod> missing = new ArrayList<>();
+        for (PsiMethod method : generatedClass.getMethods()) {
+            if (isTestMethod(method) && existingNames.add(method.getName())) missing.add(method);
+        }
+
+        if (!missing.isEmpty()) {
+            List<PsiImportStatementBase> imports = missingImports(existing, generated);
+            if (imports == null) {
+                // Merging would bind a simple name to a second type
+                notifyNotMerged(existingFile, missing.size());
+            } else {
+                CodeStyleManager codeStyle = CodeStyleManager.getInstance(project);
+                for (PsiMethod method : missing) {
+                    codeStyle.reformat(existingClass.add(method));
+                }
+                PsiImportList existingImports = existing.getImportList();
+                for (PsiImportStatementBase statement : imports) {
+                    existingImports.add(statement);
+                }
+                if (document != null) {
+                    documentManager.doPostponedOperationsAndUnblockDocument(document);
+                    FileDocumentManager.getInstance().saveDocument(document);
                 }
             }
         }
 
-        if (toAppend.length() > 0) {
-            // Insert before the last closing brace of the class
-            int lastBrace = existing.lastIndexOf('}');
-            String updated = existing.substring(0, lastBrace)
-                           + toAppend
-                           + existing.substring(lastBrace);
-            VfsUtil.saveText(existingFile, updated);
+        if (openAfterWrite) openInEditor(existingFile);
+        return existingPsi;
+    }
+
+    /**
+     * The generated file's imports that the existing file lacks, or null if
+     * one of them is a single-type import of a simple name the existing file
+     * already binds to another type (e.g. a.User generated, b.User present).
+     */
+    private List<PsiImportStatementBase> missingImports(PsiJavaFile existing, PsiJavaFile generated) {
+        PsiImportList existingImports  = existing.getImportList();
+        PsiImportList generatedImports = generated.getImportList();
+        if (existingImports == null || generatedImports == null) return List.of();
+
+        Set<String> present = new HashSet<>();
+        Map<String, String> bound = new HashMap<>(); // simple name → what binds it
+        for (PsiClass declared : existing.getClasses()) {
+            bound.put(declared.getName(), declared.getQualifiedName());
+        }
+        for (PsiImportStatementBase statement : existingImports.getAllImportStatements()) {
+            String key = importKey(statement);
+            present.add(key);
+            if (!statement.isOnDemand()) bound.put(boundName(statement, key), key);
         }
 
-        openInEditor(existingFile);
-        return PsiManager.getInstance(project).findFile(existingFile);
+        List<PsiImportStatementBase> missing = new ArrayList<>();
+        for (PsiImportStatementBase statement : generatedImports.getAllImportStatements()) {
+            String key = importKey(statement);
+            if (!present.add(key)) continue;
+            if (!statement.isOnDemand() && bound.containsKey(boundName(statement, key))) return null;
+            missing.add(statement);
+        }
+        return missing;
     }
 
-    // ── Find or create src/test/java source root ──────────────────────────
+    /** "a.User" → "User", "static a.Users.of" → "static of"; statics bind members, not types. */
+    private static String boundName(PsiImportStatementBase statement, String key) {
+        String simpleName = StringUtil.getShortName(key);
+        return statement instanceof PsiImportStaticStatement ? "static " + simpleName : simpleName;
+    }
 
-    private VirtualFile findOrCreateTestSourceRoot(Module module) {
-        // 1. Try to find existing test source root
-        for (VirtualFile root : ModuleRootManager.getInstance(module).getSourceRoots(true)) {
-            String path = root.getPath();
-            if (path.contains("test") && !path.contains("resources")) {
-                return root;
-            }
+    /** e.g. "static org.mockito.Mockito.*" — whitespace-insensitive. */
+    private String importKey(PsiImportStatementBase statement) {
+        PsiJavaCodeReferenceElement ref = statement.getImportReference();
+        String name = ref == null ? statement.getText() : ref.getText();
+        return (statement instanceof PsiImportStaticStatement ? "static " : "")
+             + name + (statement.isOnDemand() ? ".*" : "");
+    }
+
+    private PsiClass findClass(PsiJavaFile file, String name) {
+        PsiClass[] classes = file.getClasses();
+        for (PsiClass psiClass : classes) {
+            if (name.equals(psiClass.getName())) return psiClass;
+        }
+        return classes.length > 0 ? classes[0] : null;
+    }
+
+    /** Matched by short name — the generated file is never resolved. */
+    private boolean isTestMethod(PsiMethod method) {
+        for (PsiAnnotation annotation : method.getModifierList().getAnnotations()) {
+            PsiJavaCodeReferenceElement ref = annotation.getNameReferenceElement();
+            if (ref != null && "Test".equals(ref.getReferenceName())) return true;
         }
+        return false;
+    }
+
+    // ── Find the test source root ─────────────────────────────────────────
 
-        // 2. Fall back: construct path next to main source root
-        for (VirtualFile root : ModuleRootManager.getInstance(module).getSourceRoots(false)) {
-            String path = root.getPath();
-            if (path.endsWith("src/main/java") || path.endsWith("src\\main\\java")) {
-                String testPath = path.replace("src/main/java", "src/test/java")
-                                      .replace("src\\main\\java", "src\\test\\java");
-                try {
-                    return VfsUtil.createDirectoryIfMissing(testPath);
-                } catch (IOException e) {
-                    return null;
+    private VirtualFile findTestSourceRoot(Module module) {
+        VirtualFile root = testRoots(module).testRoot();
+        return root != null && root.isValid() ? root : null;
+    }
+
+    /**
+     * The module's test source root, else the path of src/test/java next to
+     * its main source root. Resolved once per module and reused until the
+     * project's root model changes, so bulk runs over hundreds of modules
+     * don't rescan roots.
+     */
+    private record TestRoots(VirtualFile testRoot, String fallbackPath) {}
+
+    private static final Key<CachedValue<TestRoots>> TEST_ROOTS =
+        Key.create("com.testgen.plugin.TestRoots");
+
+    private TestRoots testRoots(Module module) {
+        return CachedValuesManager.getManager(project).getCachedValue(module, TEST_ROOTS, () ->
+            CachedValueProvider.Result.create(computeTestRoots(module),
+                                              ProjectRootManager.getInstance(project)),
+            false);
+    }
+
+    private static TestRoots computeTestRoots(Module module) {
+        VirtualFile testRoot = null;
+        String fallbackPath  = null;
+
+        for (ContentEntry entry : ModuleRootManager.getInstance(module).getContentEntries()) {
+            // Test roots by type, not by name; generated-source roots never
+            // receive hand-maintained tests. Prefer a root named "java" when
+            // the module also has e.g. src/test/kotlin
+            for (SourceFolder folder : entry.getSourceFolders(JavaSourceRootType.TEST_SOURCE)) {
+                VirtualFile root = folder.getFile();
+                JavaSourceRootProperties properties =
+                    folder.getJpsElement().getProperties(JavaSourceRootType.TEST_SOURCE);
+                if (root == null || (properties != null && properties.isForGeneratedSources())) continue;
+                if (testRoot == null || (!"java".equals(testRoot.getName()) && "java".equals(root.getName()))) {
+                    testRoot = root;
+                }
+            }
+            for (SourceFolder folder : entry.getSourceFolders(JavaSourceRootType.SOURCE)) {
+                String url = folder.getUrl();
+                if (fallbackPath == null && url.endsWith("src/main/java")) {
+                    fallbackPath = VfsUtilCore.urlToPath(url).replace("src/main/java", "src/test/java");
                 }
             }
         }
-        return null;
+        return new TestRoots(testRoot, fallbackPath);
     }
 
-    // ── Open file in editor ───────────────────────────────────────────────
+    // ── Open file in editor, notify ───────────────────────────────────────
 
     private void openInEditor(VirtualFile file) {
         ApplicationManager.getApplication().invokeLater(() ->
             FileEditorManager.getInstance(project).openFile(file, true));
     }
+
+    private void notifyNotMerged(VirtualFile file, int methods) {
+        Notifications.Bus.notify(
+            new Notification(
+                GenerateTestsAction.NOTIFICATION_GROUP_ID,
+                "⚠️ JUnit Generator",
+                file.getName() + ": " + methods + " new test method(s) not added — they use a type " +
+                "whose simple name the file already imports from another package.",
+                NotificationType.WARNING
+            ), project);
+    }
 }
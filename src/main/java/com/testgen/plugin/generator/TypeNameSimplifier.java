@@ -0,0 +1,127 @@
+package com.testgen.plugin.generator;
+
+import com.intellij.psi.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Renders a PsiType with simple class names, preserving generics:
+ *   java.util.Map<java.lang.String, com.example.User[]> → Map<String, User[]>
+ *
+ * Walks the type structure (class types, type arguments, arrays, wildcards)
+ * and appends names straight into one StringBuilder, instead of rendering
+ * canonical text and stripping packages with a regex afterwards.
+ *
+ * Optionally records the qualified name of every class it meets in an
+ * {@link ImportSet}, so the caller can compute imports. A class whose simple
+ * name the set already gives to another class is written fully qualified,
+ * so two Event types from different packages can't collide. Nested classes
+ * are rendered as Outer.Inner and recorded as the outermost class, which
+ * is what an import needs.
+ */
+public final class TypeNameSimplifier extends PsiTypeVisitor<Void> {
+
+    private final StringBuilder out = new StringBuilder(32);
+    private final boolean resolve;
+    private final @Nullable ImportSet names;
+
+    private TypeNameSimplifier(boolean resolve, @Nullable ImportSet names) {
+        this.resolve = resolve;
+        this.names   = names;
+    }
+
+    /** Simple name of {@code type}, resolving class references. */
+    public static String simplify(PsiType type) {
+        return simplify(type, true);
+    }
+
+    /**
+     * @param resolve false to never resolve references (index / dumb mode);
+     *                names are then taken as written
+     */
+    public static String simplify(PsiType type, boolean resolve) {
+        return simplify(type, resolve, null);
+    }
+
+    /**
+     * @param names receives every resolved class, or null; decides whether
+     *              a class is written by simple or qualified name
+     */
+    static String simplify(PsiType type, boolean resolve, @Nullable ImportSet names) {
+        TypeNameSimplifier visitor = new TypeNameSimplifier(resolve, names);
+        type.accept(visitor);
+        return visitor.out.toString();
+    }
+
+    // ── Visitor ────────────────────────────────────────────────────────────
+
+    @Override
+    public Void visitPrimitiveType(PsiPrimitiveType type) {
+        out.append(type.getName());
+        return null;
+    }
+
+    @Override
+    public Void visitArrayType(PsiArrayType type) {
+        // Also covers varargs (PsiEllipsisType): a local variable can't be
+        // declared as String..., so it is rendered as String[]
+        type.getComponentType().accept(this);
+        out.append("[]");
+        return null;
+    }
+
+    @Override
+    public Void visitClassType(PsiClassType type) {
+        PsiClass psiClass = resolve ? type.resolve() : null;
+        if (psiClass == null || psiClass instanceof PsiTypeParameter) {
+            out.append(type.getClassName());
+        } else {
+            appendClassName(psiClass);
+        }
+
+        PsiType[] parameters = type.getParameters();
+        if (parameters.length > 0) {
+            out.append('<');
+            for (int i = 0; i < parameters.length; i++) {
+                if (i > 0) out.append(", ");
+                parameters[i].accept(this);
+            }
+            out.append('>');
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitWildcardType(PsiWildcardType type) {
+        out.append('?');
+        PsiType bound = type.getBound();
+        if (bound != null) {
+            out.append(type.isExtends() ? " extends " : " super ");
+            bound.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitType(PsiType type) {
+        // Captured, intersection, disjunction and other exotic types
+        out.append(type.getPresentableText());
+        return null;
+    }
+
+    // ── Helpers ────────────────────────────────────────────────────────────
+
+    private void appendClassName(PsiClass psiClass) {
+        PsiClass outer = psiClass.getContainingClass();
+        if (outer != null) {
+            appendClassName(outer);
+            out.append('.');
+        } else if (names != null) {
+            String qName = psiClass.getQualifiedName();
+            if (qName != null) {
+                out.append(names.add(qName)); // simple, or qualified if taken
+                return;
+            }
+        }
+        out.append(psiClass.getName());
+    }
+}
@@ -0,0 +1,310 @@
+package com.testgen.plugin.headless;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.testgen.plugin.generator.PsiClassAnalyzer;
+import com.testgen.plugin.generator.TestCodeGenerator;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.settings.TestGeneratorSettings;
+import com.testgen.plugin.snapshot.SnapshotReader;
+import com.testgen.plugin.snapshot.SnapshotWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless entry point for CI — no IDE window, no dialog.
+ *
+ * Usage (via the IDE launcher or the {@code generateTests} Gradle task):
+ *   idea generate-junit-tests <sourceRoot> <outputDir> [--project=<dir>] [--overwrite]
+ *                             [--snapshot=<file> [--snapshot-key=<key>]]
+ *
+ * Opens the project once, waits for indexing, then walks every .java file
+ * under the source root. Each file is analyzed, generated and written before
+ * the next one is read, so memory stays flat regardless of repository size.
+ * Existing test files are left untouched unless --overwrite is given, and
+ * even then only rewritten when their content would change.
+ *
+ * With --snapshot, the analysis results are saved to the given file,
+ * stamped with the source root and a key: --snapshot-key (e.g. the commit
+ * SHA) or, without one, a stamp of the .java files' paths, sizes and
+ * modification times. When the file already exists and was taken of the
+ * same source root with the same key, it is loaded instead and the project
+ * is never opened; otherwise the sources are analyzed again and the file
+ * replaced.
+ */
+public class HeadlessTestGenerator implements ApplicationStarter {
+
+    /** PSI caches are dropped after this many files to keep the heap bounded. */
+    private static final int FILES_PER_CACHE_FLUSH = 500;
+
+    /** Generates the tests of a large class method by method; files are processed one at a time. */
+    private static final Executor GENERATION_POOL = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+        "JUnit Test Generator", Runtime.getRuntime().availableProcessors());
+
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        int exitCode;
+        try {
+            exitCode = run(args.subList(1, args.size())); // args[0] is the command name
+        } catch (Throwable t) {
+            t.printStackTrace();
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private int run(List<String> args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        Path projectDir = null;
+        boolean overwrite = false;
+        Path snapshot = null;
+        String snapshotKey = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--project=")) projectDir = Path.of(arg.substring("--project=".length()));
+            else if (arg.equals("--overwrite")) overwrite = true;
+            else if (arg.startsWith("--snapshot=")) snapshot = Path.of(arg.substring("--snapshot=".length()));
+            else if (arg.startsWith("--snapshot-key=")) snapshotKey = arg.substring("--snapshot-key=".length());
+            else positional.add(arg);
+        }
+        if (positional.size() != 2) {
+            System.err.println("Usage: generate-junit-tests <sourceRoot> <outputDir> " +
+                               "[--project=<dir>] [--overwrite] [--snapshot=<file> [--snapshot-key=<key>]]");
+            return 2;
+        }
+
+        Path sourceRoot = Path.of(positional.get(0)).toAbsolutePath().normalize();
+        Path outputDir  = Path.of(positional.get(1)).toAbsolutePath().normalize();
+        if (projectDir == null) projectDir = sourceRoot;
+
+        SnapshotReader.Header header = null;
+        if (snapshot != null) {
+            if (snapshotKey == null && !Files.isDirectory(sourceRoot)) {
+                System.err.println("Source root not found: " + sourceRoot);
+                return 1;
+            }
+            header = new SnapshotReader.Header(sourceRoot.toString(),
+                                               snapshotKey != null ? snapshotKey : sourceStamp(sourceRoot));
+            if (isCurrent(snapshot, header)) {
+                return generateFromSnapshot(snapshot, outputDir, overwrite);
+            }
+        }
+
+        Project project = ProjectUtil.openOrImport(projectDir, null, false);
+        if (project == null) {
+            System.err.println("Cannot open project at " + projectDir);
+            return 1;
+        }
+
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+
+            VirtualFile root = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(sourceRoot);
+            if (root == null) {
+                System.err.println("Source root not found: " + sourceRoot);
+                return 1;
+            }
+
+            // Written next to the target and moved into place only on success,
+            // so an aborted run never leaves a partial snapshot to be reused
+            Path partial = snapshot == null ? null
+                : snapshot.resolveSibling(snapshot.getFileName() + ".partial");
+            Session session;
+            try (SnapshotWriter snapshotWriter = partial == null ? null
+                    : SnapshotWriter.create(partial, header.sourceRoot(), header.key())) {
+                session = new Session(PsiManager.getInstance(project), outputDir, overwrite, snapshotWriter);
+                VfsUtilCore.iterateChildrenRecursively(root, null, file -> {
+                    if (!file.isDirectory() && "java".equals(file.getExtension())) {
+                        session.process(file);
+                    }
+                    return true;
+                });
+            }
+            if (partial != null) {
+                Files.move(partial, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            System.out.println("Generated " + session.written + " test file(s), skipped " +
+                               session.skipped + " existing or unchanged, from " + session.files + " source file(s).");
+            return 0;
+        } finally {
+            ProjectManager.getInstance().closeAndDispose(project);
+        }
+    }
+
+    /** True if {@code snapshot} exists and was taken of the sources {@code expected} describes. */
+    private static boolean isCurrent(Path snapshot, SnapshotReader.Header expected) {
+        if (!Files.exists(snapshot)) return false;
+        try {
+            SnapshotReader.Header header = SnapshotReader.readHeader(snapshot);
+            if (header.equals(expected)) return true;
+            System.out.println("Snapshot " + snapshot + " was taken of " + header.sourceRoot() +
+                               " at " + header.key() + "; analyzing again");
+        } catch (IOException e) {
+            System.out.println("Snapshot " + snapshot + " can't be used (" + e.getMessage() +
+                               "); analyzing again");
+        }
+        return false;
+    }
+
+    /**
+     * The key used without --snapshot-key: a digest of the path, size and
+     * modification time of every .java file under {@code sourceRoot}. A
+     * fresh checkout moves the times too; that only costs a re-analysis.
+     */
+    private static String sourceStamp(Path sourceRoot) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(sourceRoot)) {
+            files = walk.filter(file -> file.toString().endsWith(".java") && Files.isRegularFile(file))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // required of every JRE
+        }
+        for (Path file : files) {
+            String entry = sourceRoot.relativize(file) + "\0" + Files.size(file) + "\0"
+                         + Files.getLastModifiedTime(file).toMillis() + "\n";
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private int generateFromSnapshot(Path snapshot, Path outputDir, boolean overwrite) throws IOException {
+        List<ServiceClassInfo> infos = SnapshotReader.read(snapshot);
+        System.out.println("Loaded " + infos.size() + " class(es) from " + snapshot);
+
+        Session session = new Session(null, outputDir, overwrite, null);
+        for (ServiceClassInfo info : infos) {
+            session.write(info);
+        }
+
+        System.out.println("Generated " + session.written + " test file(s), skipped " +
+                           session.skipped + " existing or unchanged.");
+        return 0;
+    }
+
+    // ── One analysis session shared by all files ──────────────────────────
+
+    private static class Session {
+        private final @Nullable PsiManager psiManager;       // null when replaying a snapshot
+        private final Path outputDir;
+        private final boolean overwrite;
+        private final @Nullable SnapshotWriter snapshot;
+        private final PsiClassAnalyzer analyzer = new PsiClassAnalyzer();
+        private final TestCodeGenerator generator;
+
+        private int files, written, skipped;
+
+        Session(@Nullable PsiManager psiManager, Path outputDir, boolean overwrite,
+                @Nullable SnapshotWriter snapshot) {
+            this.psiManager = psiManager;
+            this.outputDir  = outputDir;
+            this.overwrite  = overwrite;
+            this.snapshot   = snapshot;
+            this.generator  = new TestCodeGenerator(TestGeneratorSettings.getInstance(), GENERATION_POOL,
+                                                    TestCodeGenerator.DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        void process(VirtualFile file) {
+            assert psiManager != null;
+            List<ServiceClassInfo> infos = ReadAction.compute(() -> {
+                List<ServiceClassInfo> result = new ArrayList<>();
+                PsiFile psiFile = psiManager.findFile(file);
+                if (!(psiFile instanceof PsiJavaFile)) return result;
+                for (ServiceClassInfo info : analyzer.analyzeFile((PsiJavaFile) psiFile).values()) {
+                    if (!info.publicMethods().isEmpty()) result.add(info);
+                }
+                return result;
+            });
+
+            for (ServiceClassInfo info : infos) {
+                if (snapshot != null) {
+                    try {
+                        snapshot.add(info);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to write snapshot", e);
+                    }
+                }
+                write(info);
+            }
+
+            if (++files % FILES_PER_CACHE_FLUSH == 0) {
+                psiManager.dropPsiCaches();
+                System.out.println("… " + files + " source files processed");
+            }
+        }
+
+        private void write(ServiceClassInfo info) {
+            Path dir    = outputDir.resolve(info.packageName().replace('.', '/'));
+            Path target = dir.resolve(info.testClassName() + ".java");
+            try {
+                if (Files.exists(target)) {
+                    if (!overwrite) {
+                        skipped++;
+                        return;
+                    }
+                    String source = generator.generate(info);
+                    if (hasContent(target, source)) {
+                        skipped++;
+                        return;
+                    }
+                    Files.writeString(target, source);
+                } else {
+                    Files.createDirectories(dir);
+                    try (Writer out = Files.newBufferedWriter(target)) {
+                        generator.generate(info, out);
+                    }
+                }
+                written++;
+                System.out.println(outputDir.relativize(target));
+            } catch (IOException e) {
+                System.err.println("Failed to write " + target + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * An identical file is not rewritten, so its timestamp doesn't move
+         * and file watchers, indexers and build caches stay idle.
+         */
+        private static boolean hasContent(Path file, String content) throws IOException {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            return Files.size(file) == bytes.length
+                && Arrays.equals(Files.readAllBytes(file), bytes);
+        }
+    }
+}
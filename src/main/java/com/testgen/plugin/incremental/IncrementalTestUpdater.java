@@ -0,0 +1,169 @@
+package com.testgen.plugin.incremental;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import com.testgen.plugin.generator.BulkTestGenerator;
+import com.testgen.plugin.generator.BulkTestGenerator.AnalyzedClass;
+import com.testgen.plugin.generator.GeneratedSignatures;
+import com.testgen.plugin.generator.PsiClassAnalyzer;
+import com.testgen.plugin.generator.TestFileWriter;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.MethodInfo;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in watcher (Settings → "Add tests for new methods … as you edit")
+ * that keeps existing test files in step with their source classes.
+ *
+ * Pipeline:
+ *   1. PSI change events ({@link SourceChangeListener}) record the touched
+ *      Java file                                          (EDT, O(1) each)
+ *   2. After {@link #QUIET_PERIOD_MS} without further edits, the batch is
+ *      analyzed           (background, non-blocking read action, smart mode)
+ *   3. Methods whose signature is not among those recorded for the class
+ *      (GeneratedSignatures) get tests generated           (background)
+ *      and appended          (EDT, one command, outside the global undo stack)
+ *
+ * Only classes that already have a test file are touched; creating tests
+ * stays an explicit action. A class with no recorded signatures — its test
+ * predates signature tracking — only gets them recorded on its first
+ * change. The read action in step 2 yields to every write action and
+ * restarts afterwards, so refactorings that touch hundreds of files never
+ * wait for it.
+ */
+@Service(Service.Level.PROJECT)
+public final class IncrementalTestUpdater implements Disposable {
+
+    static final int QUIET_PERIOD_MS = 1500;
+
+    private final Project project;
+    private final Set<VirtualFile> pending = ConcurrentHashMap.newKeySet();
+    private final MergingUpdateQueue queue;
+
+    public IncrementalTestUpdater(Project project) {
+        this.project = project;
+        this.queue   = new MergingUpdateQueue("JUnit test updates", QUIET_PERIOD_MS, true,
+                                              null, this, null, Alarm.ThreadToUse.POOLED_THREAD);
+        queue.setRestartTimerOnAdd(true); // debounce: wait for the edits to settle
+    }
+
+    public static IncrementalTestUpdater getInstance(Project project) {
+        return project.getService(IncrementalTestUpdater.class);
+    }
+
+    // ── 1. Collect ─────────────────────────────────────────────────────────
+
+    /** Called by {@link SourceChangeListener} for each changed physical Java file. */
+    void fileChanged(VirtualFile file) {
+        pending.add(file);
+        queue.queue(Update.create(this, this::flush));
+    }
+
+    // ── 2. Analyze ─────────────────────────────────────────────────────────
+
+    private void flush() {
+        List<VirtualFile> batch = new ArrayList<>(pending);
+        pending.removeAll(batch);
+        if (batch.isEmpty()) return;
+
+        ReadAction.nonBlocking(() -> generate(analyze(batch)))
+            .inSmartMode(project)
+            .expireWith(this)
+            .finishOnUiThread(ModalityState.defaultModalityState(), this::write)
+            .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    /** Classes with an existing test file, reduced to their changed methods. */
+    private List<Change> analyze(List<VirtualFile> files) {
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        PsiClassAnalyzer analyzer = new PsiClassAnalyzer();
+        TestFileWriter writer = new TestFileWriter(project);
+        GeneratedSignatures signatures = GeneratedSignatures.getInstance(project);
+        List<Change> changes = new ArrayList<>();
+
+        for (VirtualFile file : files) {
+            ProgressManager.checkCanceled();
+            // Test sources are skipped, which also ignores our own writes
+            if (!file.isValid() || !fileIndex.isInSourceContent(file)
+                    || fileIndex.isInTestSourceContent(file)) continue;
+
+            PsiFile psiFile = psiManager.findFile(file);
+            if (!(psiFile instanceof PsiJavaFile)) continue;
+
+            for (ServiceClassInfo info : analyzer.analyzeFile((PsiJavaFile) psiFile).values()) {
+                if (writer.findExistingTestFile(file, info) == null) continue;
+
+                // Unknown class: a baseline only, the test file may
+                // deliberately cover a subset of the methods
+                List<MethodInfo> changed = signatures.isKnown(info)
+                    ? signatures.changedMethods(info)
+                    : List.of();
+                changes.add(new Change(file, info, changed));
+            }
+        }
+        return changes;
+    }
+
+    // ── 3. Generate + append ───────────────────────────────────────────────
+
+    /** What the EDT does with a batch: signatures to record, tests to write. */
+    private record Outcome(List<ServiceClassInfo> toRecord, BulkTestGenerator.Prepared toWrite) {}
+
+    /**
+     * Generates the new tests right after analysis and resolves their files,
+     * still in the read action, off the EDT.
+     */
+    private Outcome generate(List<Change> changes) {
+        List<ServiceClassInfo> toRecord = new ArrayList<>();
+        List<AnalyzedClass> toWrite = new ArrayList<>();
+        for (Change change : changes) {
+            ServiceClassInfo info = change.info();
+            if (change.methods().isEmpty()) {
+                toRecord.add(info);
+            } else {
+                // Recorded by the writer once the tests are in place
+                toWrite.add(new AnalyzedClass(change.file(), info, info.withMethods(change.methods())));
+            }
+        }
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        BulkTestGenerator generator = new BulkTestGenerator(project);
+        return new Outcome(toRecord, generator.prepare(generator.generate(
+            toWrite, indicator != null ? indicator : new EmptyProgressIndicator())));
+    }
+
+    private void write(Outcome outcome) {
+        // Recorded only now, so a restarted or cancelled analysis
+        // never swallows a change
+        GeneratedSignatures signatures = GeneratedSignatures.getInstance(project);
+        for (ServiceClassInfo info : outcome.toRecord()) {
+            signatures.record(info);
+        }
+        if (!outcome.toWrite().isEmpty()) {
+            // Not the user's command: kept out of the global undo stack
+            new BulkTestGenerator(project).write(outcome.toWrite(), false);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pending.clear();
+    }
+
+    private record Change(VirtualFile file, ServiceClassInfo info, List<MethodInfo> methods) {}
+}
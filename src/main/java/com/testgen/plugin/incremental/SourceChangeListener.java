@@ -0,0 +1,27 @@
+package com.testgen.plugin.incremental;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiTreeAnyChangeAbstractAdapter;
+import com.testgen.plugin.settings.TestGeneratorSettings;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Feeds changed Java files to {@link IncrementalTestUpdater}. Registered as
+ * a psi.treeChangeListener, so it needs no startup activity; with the
+ * option off it returns before the updater service is ever created.
+ */
+public class SourceChangeListener extends PsiTreeAnyChangeAbstractAdapter {
+
+    @Override
+    protected void onChange(@Nullable PsiFile file) {
+        if (!(file instanceof PsiJavaFile) || !file.isPhysical()) return;
+        if (!TestGeneratorSettings.getInstance().isUpdateTestsOnChange()) return;
+
+        VirtualFile virtualFile = file.getVirtualFile();
+        if (virtualFile == null) return;
+
+        IncrementalTestUpdater.getInstance(file.getProject()).fileChanged(virtualFile);
+    }
+}
@@ -0,0 +1,136 @@
+package com.testgen.plugin.index;
+
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores a ServiceClassInfo in the index: UTF strings, varint counts.
+ * Bump {@link TestableClassIndex#VERSION} whenever this layout changes.
+ */
+class ServiceClassInfoExternalizer implements DataExternalizer<ServiceClassInfo> {
+
+    static final ServiceClassInfoExternalizer INSTANCE = new ServiceClassInfoExternalizer();
+
+    @Override
+    public void save(DataOutput out, ServiceClassInfo info) throws IOException {
+        IOUtil.writeUTF(out, info.packageName());
+        IOUtil.writeUTF(out, info.className());
+
+        DataInputOutputUtil.writeINT(out, info.injectedFields().size());
+        for (FieldInfo field : info.injectedFields()) {
+            IOUtil.writeUTF(out, field.typeName());
+            IOUtil.writeUTF(out, field.fieldName());
+        }
+
+        DataInputOutputUtil.writeINT(out, info.publicMethods().size());
+        for (MethodInfo method : info.publicMethods()) {
+            IOUtil.writeUTF(out, method.methodName());
+            IOUtil.writeUTF(out, method.returnType());
+            out.writeBoolean(method.isVoid());
+
+            DataInputOutputUtil.writeINT(out, method.params().size());
+            for (ParamInfo param : method.params()) {
+                IOUtil.writeUTF(out, param.typeName());
+                IOUtil.writeUTF(out, param.paramName());
+            }
+
+            DataInputOutputUtil.writeINT(out, method.thrownExceptions().size());
+            for (String ex : method.thrownExceptions()) {
+                IOUtil.writeUTF(out, ex);
+            }
+
+            DataInputOutputUtil.writeINT(out, method.dependencyCalls().size());
+            for (DependencyCall call : method.dependencyCalls()) {
+                IOUtil.writeUTF(out, call.fieldName());
+                IOUtil.writeUTF(out, call.methodName());
+                DataInputOutputUtil.writeINT(out, call.argTypes().size());
+                for (String argType : call.argTypes()) {
+                    IOUtil.writeUTF(out, argType);
+                }
+                IOUtil.writeUTF(out, call.returnType());
+                out.writeBoolean(call.conditional());
+                DataInputOutputUtil.writeINT(out, call.throwable().size());
+                for (String ex : call.throwable()) {
+                    IOUtil.writeUTF(out, ex);
+                }
+            }
+        }
+
+        DataInputOutputUtil.writeINT(out, info.imports().size());
+        for (String imp : info.imports()) {
+            IOUtil.writeUTF(out, imp);
+        }
+    }
+
+    @Override
+    public ServiceClassInfo read(DataInput in) throws IOException {
+        String packageName = IOUtil.readUTF(in);
+        String className   = IOUtil.readUTF(in);
+
+        int fieldCount = DataInputOutputUtil.readINT(in);
+        List<FieldInfo> fields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            fields.add(new FieldInfo(IOUtil.readUTF(in), IOUtil.readUTF(in)));
+        }
+
+        int methodCount = DataInputOutputUtil.readINT(in);
+        List<MethodInfo> methods = new ArrayList<>(methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            String name       = IOUtil.readUTF(in);
+            String returnType = IOUtil.readUTF(in);
+            boolean isVoid    = in.readBoolean();
+
+            int paramCount = DataInputOutputUtil.readINT(in);
+            List<ParamInfo> params = new ArrayList<>(paramCount);
+            for (int p = 0; p < paramCount; p++) {
+                params.add(new ParamInfo(IOUtil.readUTF(in), IOUtil.readUTF(in)));
+            }
+
+            int exceptionCount = DataInputOutputUtil.readINT(in);
+            List<String> exceptions = new ArrayList<>(exceptionCount);
+            for (int e = 0; e < exceptionCount; e++) {
+                exceptions.add(IOUtil.readUTF(in));
+            }
+
+            int callCount = DataInputOutputUtil.readINT(in);
+            List<DependencyCall> calls = new ArrayList<>(callCount);
+            for (int c = 0; c < callCount; c++) {
+                String fieldName  = IOUtil.readUTF(in);
+                String methodName = IOUtil.readUTF(in);
+                int argCount = DataInputOutputUtil.readINT(in);
+                List<String> argTypes = new ArrayList<>(argCount);
+                for (int a = 0; a < argCount; a++) {
+                    argTypes.add(IOUtil.readUTF(in));
+                }
+                String callReturnType = IOUtil.readUTF(in);
+                boolean conditional   = in.readBoolean();
+                int throwableCount = DataInputOutputUtil.readINT(in);
+                List<String> throwable = new ArrayList<>(throwableCount);
+                for (int t = 0; t < throwableCount; t++) {
+                    throwable.add(IOUtil.readUTF(in));
+                }
+                calls.add(new DependencyCall(fieldName, methodName, argTypes,
+                                             callReturnType, conditional, throwable));
+            }
+
+            methods.add(new MethodInfo(name, returnType, isVoid, params, exceptions, calls));
+        }
+
+        int importCount = DataInputOutputUtil.readINT(in);
+        List<String> imports = new ArrayList<>(importCount);
+        for (int i = 0; i < importCount; i++) {
+            imports.add(IOUtil.readUTF(in));
+        }
+
+        return new ServiceClassInfo(packageName, className, fields, methods, imports);
+    }
+}
@@ -0,0 +1,113 @@
+package com.testgen.plugin.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.testgen.plugin.generator.PsiClassAnalyzer;
+import com.testgen.plugin.model.ServiceClassInfo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persistent index: qualified class name → ServiceClassInfo, for every
+ * testable class in every Java file, static nested classes included.
+ *
+ * Built with {@link PsiClassAnalyzer} in syntactic mode and re-indexed by
+ * the platform only for files that change, so looking up a file's classes
+ * never requires parsing it. Callers must be in a read action and smart mode.
+ *
+ * Indexing can't resolve a superclass, so indexed infos hold declared
+ * members only. Files with a class that inherits from a source superclass
+ * are therefore answered from the (cached) full analysis instead.
+ */
+public class TestableClassIndex extends FileBasedIndexExtension<String, ServiceClassInfo>
+        implements PsiDependentIndex {
+
+    public static final ID<String, ServiceClassInfo> NAME =
+        ID.create("com.testgen.plugin.testableClasses");
+
+    static final int VERSION = 8;
+
+    // ── Queries ────────────────────────────────────────────────────────────
+
+    /** All testable classes declared in {@code file}, keyed by qualified name. */
+    public static Map<String, ServiceClassInfo> getClassesInFile(Project project, VirtualFile file) {
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (psiFile instanceof PsiJavaFile) {
+            PsiClassAnalyzer analyzer = new PsiClassAnalyzer();
+            if (analyzer.hasInheritingClass((PsiJavaFile) psiFile)) {
+                Map<String, ServiceClassInfo> result =
+                    new LinkedHashMap<>(analyzer.analyzeFile((PsiJavaFile) psiFile));
+                result.values().removeIf(info -> info.publicMethods().isEmpty());
+                return result;
+            }
+        }
+        return FileBasedIndex.getInstance().getFileData(NAME, file, project);
+    }
+
+    /** Indexed info for {@code psiClass}, or null if it isn't an indexed class. */
+    public static ServiceClassInfo find(PsiClass psiClass) {
+        PsiFile file = psiClass.getContainingFile();
+        String qName = psiClass.getQualifiedName();
+        if (file == null || file.getVirtualFile() == null || qName == null) return null;
+        return getClassesInFile(psiClass.getProject(), file.getVirtualFile()).get(qName);
+    }
+
+    // ── Indexer ────────────────────────────────────────────────────────────
+
+    @Override
+    public @NotNull DataIndexer<String, ServiceClassInfo, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if (!(psiFile instanceof PsiJavaFile)) return Map.of();
+
+            Map<String, ServiceClassInfo> result =
+                new HashMap<>(new PsiClassAnalyzer(true).analyzeFile((PsiJavaFile) psiFile));
+            result.values().removeIf(info -> info.publicMethods().isEmpty());
+            return result;
+        };
+    }
+
+    // ── Extension plumbing ────────────────────────────────────────────────
+
+    @Override
+    public @NotNull ID<String, ServiceClassInfo> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<ServiceClassInfo> getValueExternalizer() {
+        return ServiceClassInfoExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
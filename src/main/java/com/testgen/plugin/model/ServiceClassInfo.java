@@ -1,82 +1,169 @@
 package com.testgen.plugin.model;
 
+import com.intellij.util.containers.Interner;
+
 import java.util.List;
 
 /**
  * Represents all extracted info from a Java service class,
  * ready to be handed to the test generator.
+ *
+ * Immutable and safe to share across threads: lists are copied into
+ * compact unmodifiable lists, and type and field names are interned in
+ * one shared table, so the "UserRepository" injected by hundreds of
+ * classes is stored once.
  */
-public class ServiceClassInfo {
+public record ServiceClassInfo(String packageName,
+                               String className,                 // "UserService"; nested: "Handlers.Create"
+                               List<FieldInfo> injectedFields,   // @Autowired / constructor-injected deps
+                               List<MethodInfo> publicMethods,
+                               List<String> imports) {           // sorted, e.g. ["com.example.model.User"]
 
-    private final String packageName;
-    private final String className;
-    private final List<FieldInfo> injectedFields;   // @Autowired / constructor-injected deps
-    private final List<MethodInfo> publicMethods;
+    public ServiceClassInfo {
+        packageName    = intern(packageName);
+        injectedFields = List.copyOf(injectedFields);
+        publicMethods  = List.copyOf(publicMethods);
+        imports        = internAll(imports);
+    }
 
+    /** A class whose types all live in its own package or java.lang. */
     public ServiceClassInfo(String packageName, String className,
-                            List<FieldInfo> injectedFields,
-                            List<MethodInfo> publicMethods) {
-        this.packageName    = packageName;
-        this.className      = className;
-        this.injectedFields = injectedFields;
-        this.publicMethods  = publicMethods;
+                            List<FieldInfo> injectedFields, List<MethodInfo> publicMethods) {
+        this(packageName, className, injectedFields, publicMethods, List.of());
     }
 
-    public String getPackageName()            { return packageName; }
-    public String getClassName()              { return className; }
-    public List<FieldInfo> getInjectedFields(){ return injectedFields; }
-    public List<MethodInfo> getPublicMethods(){ return publicMethods; }
+    /** The same class, restricted to {@code methods}. */
+    public ServiceClassInfo withMethods(List<MethodInfo> methods) {
+        return new ServiceClassInfo(packageName, className, injectedFields, methods, imports);
+    }
+
+    /** e.g. "com.example.UserService", "com.example.Handlers.Create" */
+    public String qualifiedName() {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    /** The class's own name, without enclosing classes: "Create" */
+    public String simpleName() {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * The generated test class: "UserServiceTest"; for a nested class the
+     * enclosing path is kept, "Handlers_CreateTest", so that a
+     * Commands.Create in the same package gets a test of its own.
+     */
+    public String testClassName() {
+        return testClassName(className);
+    }
+
+    /** The test class name for {@code className}, before an info exists. */
+    public static String testClassName(String className) {
+        return className.replace('.', '_') + "Test";
+    }
+
+    /** e.g. "com.example.Handlers_CreateTest" */
+    public String testQualifiedName() {
+        return packageName.isEmpty() ? testClassName() : packageName + "." + testClassName();
+    }
 
     // ── Nested: a single injected dependency ──────────────────────────────
-    public static class FieldInfo {
-        private final String typeName;   // e.g. "UserRepository"
-        private final String fieldName;  // e.g. "userRepository"
+    public record FieldInfo(String typeName,    // e.g. "UserRepository"
+                            String fieldName) { // e.g. "userRepository"
 
-        public FieldInfo(String typeName, String fieldName) {
-            this.typeName  = typeName;
-            this.fieldName = fieldName;
+        public FieldInfo {
+            typeName  = intern(typeName);
+            fieldName = intern(fieldName);
         }
-
-        public String getTypeName()  { return typeName; }
-        public String getFieldName() { return fieldName; }
     }
 
     // ── Nested: a single public method ────────────────────────────────────
-    public static class MethodInfo {
-        private final String methodName;
-        private final String returnType;      // "void", "User", "List<String>", etc.
-        private final boolean isVoid;
-        private final List<ParamInfo> params;
-        private final List<String> thrownExceptions;  // e.g. ["UserNotFoundException"]
-
-        public MethodInfo(String methodName, String returnType,
-                          boolean isVoid, List<ParamInfo> params,
-                          List<String> thrownExceptions) {
-            this.methodName       = methodName;
-            this.returnType       = returnType;
-            this.isVoid           = isVoid;
-            this.params           = params;
-            this.thrownExceptions = thrownExceptions;
+    public record MethodInfo(String methodName,
+                             String returnType,              // "void", "User", "List<String>", etc.
+                             boolean isVoid,
+                             List<ParamInfo> params,
+                             List<String> thrownExceptions,   // e.g. ["UserNotFoundException"]
+                             List<DependencyCall> dependencyCalls) { // calls on injected fields
+
+        public MethodInfo {
+            returnType       = intern(returnType);
+            params           = List.copyOf(params);
+            thrownExceptions = internAll(thrownExceptions);
+            dependencyCalls  = List.copyOf(dependencyCalls);
+        }
+
+        /** A method whose body calls no injected dependency (or wasn't walked). */
+        public MethodInfo(String methodName, String returnType, boolean isVoid,
+                          List<ParamInfo> params, List<String> thrownExceptions) {
+            this(methodName, returnType, isVoid, params, thrownExceptions, List.of());
         }
+    }
+
+    // ── Nested: one call a method makes on an injected dependency ─────────
+    public record DependencyCall(String fieldName,      // e.g. "userRepository"
+                                 String methodName,     // e.g. "findById"
+                                 List<String> argTypes, // "" where the type is unknown
+                                 String returnType,     // "void", "Optional<User>"; "" if unknown
+                                 boolean conditional,   // in a branch, lambda, catch, …: may not run
+                                 List<String> throwable) { // of the method's exceptions, those a
+                                                           // test can make this call throw
 
-        public String getMethodName()             { return methodName; }
-        public String getReturnType()             { return returnType; }
-        public boolean isVoid()                   { return isVoid; }
-        public List<ParamInfo> getParams()        { return params; }
-        public List<String> getThrownExceptions() { return thrownExceptions; }
+        public DependencyCall {
+            fieldName  = intern(fieldName);
+            methodName = intern(methodName);
+            argTypes   = internAll(argTypes);
+            returnType = intern(returnType);
+            throwable  = internAll(throwable);
+        }
+
+        /** A call made every time the method completes normally. */
+        public DependencyCall(String fieldName, String methodName,
+                              List<String> argTypes, String returnType) {
+            this(fieldName, methodName, argTypes, returnType, false);
+        }
+
+        /** A call that can't be made to throw any of the method's exceptions. */
+        public DependencyCall(String fieldName, String methodName,
+                              List<String> argTypes, String returnType, boolean conditional) {
+            this(fieldName, methodName, argTypes, returnType, conditional, List.of());
+        }
+
+        public boolean isVoid() {
+            return returnType.equals("void");
+        }
+
+        /** True when the call returns a value of a known type, i.e. can be stubbed. */
+        public boolean hasKnownResult() {
+            return !returnType.isEmpty() && !isVoid();
+        }
     }
 
     // ── Nested: one method parameter ──────────────────────────────────────
-    public static class ParamInfo {
-        private final String typeName;
-        private final String paramName;
+    public record ParamInfo(String typeName, String paramName) {
 
-        public ParamInfo(String typeName, String paramName) {
-            this.typeName  = typeName;
-            this.paramName = paramName;
+        public ParamInfo {
+            typeName = intern(typeName);
         }
+    }
+
+    // ── Shared name table ─────────────────────────────────────────────────
 
-        public String getTypeName()  { return typeName; }
-        public String getParamName() { return paramName; }
+    /**
+     * Type names repeat heavily across a project. The table is shared by
+     * every project opened in the IDE and outlives each of them, so it
+     * holds its strings weakly: a name goes once no info refers to it.
+     */
+    private static final Interner<String> NAMES = Interner.createWeakInterner();
+
+    private static String intern(String name) {
+        return NAMES.intern(name);
+    }
+
+    private static List<String> internAll(List<String> names) {
+        if (names.isEmpty()) return List.of();
+        String[] interned = new String[names.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = intern(names.get(i));
+        }
+        return List.of(interned);
     }
 }
@@ -0,0 +1,77 @@
+package com.testgen.plugin.model;
+
+import com.testgen.plugin.model.ServiceClassInfo.FieldInfo;
+import com.testgen.plugin.model.ServiceClassInfo.MethodInfo;
+import com.testgen.plugin.model.ServiceClassInfo.ParamInfo;
+
+import java.util.List;
+
+/**
+ * Stable 64-bit fingerprint of everything a generated test depends on:
+ * method name, parameter types, return type, declared exceptions and the
+ * set of injected fields (the mocks). Parameter names are left out —
+ * renaming one doesn't change the test that would be generated. So are
+ * the dependency calls: they come from the method body, and editing an
+ * implementation shouldn't queue its existing test for regeneration.
+ *
+ * The value is FNV-1a over the names and depends on nothing but the input,
+ * so fingerprints can be persisted and compared across IDE sessions.
+ */
+public final class SignatureFingerprint {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME  = 0x100000001b3L;
+
+    private static final char SEPARATOR = '\u0000';
+    private static final char LIST_END  = '\u0001';
+
+    private SignatureFingerprint() {}
+
+    /** Fingerprint of {@code method} tested against {@code fields}. */
+    public static long of(MethodInfo method, long fieldsFingerprint) {
+        long h = FNV_OFFSET;
+        h = hash(h, method.methodName());
+        h = hash(h, method.returnType());
+        for (ParamInfo param : method.params()) {
+            h = hash(h, param.typeName());
+        }
+        h = hash(h, LIST_END);
+        for (String ex : method.thrownExceptions()) {
+            h = hash(h, ex);
+        }
+        return mix(h ^ fieldsFingerprint);
+    }
+
+    /** Order-independent: reordering field declarations changes nothing. */
+    public static long ofFields(List<FieldInfo> fields) {
+        long sum = 0;
+        for (FieldInfo field : fields) {
+            sum += mix(hash(hash(FNV_OFFSET, field.typeName()), field.fieldName()));
+        }
+        return mix(sum + fields.size());
+    }
+
+    // ── Hashing ────────────────────────────────────────────────────────────
+
+    private static long hash(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = hash(h, s.charAt(i));
+        }
+        return hash(h, SEPARATOR);
+    }
+
+    private static long hash(long h, char c) {
+        h = (h ^ (c & 0xFF)) * FNV_PRIME;
+        return (h ^ (c >>> 8)) * FNV_PRIME;
+    }
+
+    /** Final avalanche (MurmurHash3 fmix64), so similar inputs spread out. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
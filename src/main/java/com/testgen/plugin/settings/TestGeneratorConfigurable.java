@@ -18,6 +18,8 @@ public class TestGeneratorConfigurable implements Configurable {
     private JBCheckBox openAfterGenerationBox;
     private JBCheckBox generateExceptionTestsBox;
     private JBCheckBox addTodoCommentsBox;
+    private JBCheckBox updateTestsOnChangeBox;
+    private JBCheckBox verifyGeneratedTestsBox;
 
     @Override
     public @Nls String getDisplayName() {
@@ -43,7 +45,8 @@ public class TestGeneratorConfigurable implements Configurable {
 
         gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 2;
         panel.add(new JBLabel(
-            "<html><small>Placeholders: {method} = method name, {suffix} = scenario suffix<br>" +
+            "<html><small>Placeholders: {method} / {Method} = method name, {suffix} = scenario suffix,<br>" +
+            "{class} = class name, {params} = parameter types<br>" +
             "Examples: {method}_{suffix} &nbsp;|&nbsp; test_{method} &nbsp;|&nbsp; {method}_should{suffix}</small></html>"
         ), gbc);
 
@@ -64,8 +67,20 @@ public class TestGeneratorConfigurable implements Configurable {
             "Add // TODO comments in generated tests", settings.isAddTodoComments());
         panel.add(addTodoCommentsBox, gbc);
 
+        gbc.gridy = 5;
+        updateTestsOnChangeBox = new JBCheckBox(
+            "Add tests for new methods to existing test files as you edit",
+            settings.isUpdateTestsOnChange());
+        panel.add(updateTestsOnChangeBox, gbc);
+
+        gbc.gridy = 6;
+        verifyGeneratedTestsBox = new JBCheckBox(
+            "Compile-check generated tests in memory after writing",
+            settings.isVerifyGeneratedTests());
+        panel.add(verifyGeneratedTestsBox, gbc);
+
         // Padding
-        gbc.gridy = 5; gbc.weighty = 1.0;
+        gbc.gridy = 7; gbc.weighty = 1.0;
         panel.add(new JPanel(), gbc);
 
         return panel;
@@ -77,7 +92,9 @@ public class TestGeneratorConfigurable implements Configurable {
         return !namingPatternField.getText().equals(s.getTestNamingPattern())
             || openAfterGenerationBox.isSelected()    != s.isOpenAfterGeneration()
             || generateExceptionTestsBox.isSelected() != s.isGenerateExceptionTests()
-            || addTodoCommentsBox.isSelected()         != s.isAddTodoComments();
+            || addTodoCommentsBox.isSelected()         != s.isAddTodoComments()
+            || updateTestsOnChangeBox.isSelected()     != s.isUpdateTestsOnChange()
+            || verifyGeneratedTestsBox.isSelected()    != s.isVerifyGeneratedTests();
     }
 
     @Override
@@ -87,6 +104,8 @@ public class TestGeneratorConfigurable implements Configurable {
         s.setOpenAfterGeneration(openAfterGenerationBox.isSelected());
         s.setGenerateExceptionTests(generateExceptionTestsBox.isSelected());
         s.setAddTodoComments(addTodoCommentsBox.isSelected());
+        s.setUpdateTestsOnChange(updateTestsOnChangeBox.isSelected());
+        s.setVerifyGeneratedTests(verifyGeneratedTestsBox.isSelected());
     }
 
     @Override
@@ -96,5 +115,7 @@ public class TestGeneratorConfigurable implements Configurable {
         openAfterGenerationBox.setSelected(s.isOpenAfterGeneration());
         generateExceptionTestsBox.setSelected(s.isGenerateExceptionTests());
         addTodoCommentsBox.setSelected(s.isAddTodoComments());
+        updateTestsOnChangeBox.setSelected(s.isUpdateTestsOnChange());
+        verifyGeneratedTestsBox.setSelected(s.isVerifyGeneratedTests());
     }
 }
@@ -21,9 +21,18 @@ public final class TestGeneratorSettings implements PersistentStateComponent<Tes
         public boolean openFileAfterGeneration = true;
         public boolean generateExceptionTests = true;
         public boolean addTodoComments = true;
+        public boolean updateTestsOnChange = false;
+        public boolean verifyGeneratedTests = false;
+        /** 0: testNamingPattern predates the current {suffix} values. */
+        public int namingPatternVersion = 0;
     }
 
-    private State state = new State();
+    private static final int NAMING_PATTERN_VERSION = 1;
+
+    private State state = currentState();
+
+    /** Compiled form of state.testNamingPattern; rebuilt lazily after a change. */
+    private volatile TestNamingPattern compiledNamingPattern;
 
     public static TestGeneratorSettings getInstance() {
         return ApplicationManager.getApplication().getService(TestGeneratorSettings.class);
@@ -33,7 +42,21 @@ public final class TestGeneratorSettings implements PersistentStateComponent<Tes
     public @NotNull State getState() { return state; }
 
     @Override
-    public void loadState(@NotNull State state) { this.state = state; }
+    public void loadState(@NotNull State state) {
+        if (state.namingPatternVersion < NAMING_PATTERN_VERSION) {
+            state.testNamingPattern = TestNamingPattern.fromLegacy(state.testNamingPattern);
+            state.namingPatternVersion = NAMING_PATTERN_VERSION;
+        }
+        this.state = state;
+        this.compiledNamingPattern = null;
+    }
+
+    /** A fresh State; marked current so a saved file is never migrated twice. */
+    private static State currentState() {
+        State state = new State();
+        state.namingPatternVersion = NAMING_PATTERN_VERSION;
+        return state;
+    }
 
     // ── Accessors ──────────────────────────────────────────────────────────
 
@@ -41,9 +64,28 @@ public final class TestGeneratorSettings implements PersistentStateComponent<Tes
     public boolean isOpenAfterGeneration()     { return state.openFileAfterGeneration; }
     public boolean isGenerateExceptionTests()  { return state.generateExceptionTests; }
     public boolean isAddTodoComments()         { return state.addTodoComments; }
+    public boolean isUpdateTestsOnChange()     { return state.updateTestsOnChange; }
+    public boolean isVerifyGeneratedTests()    { return state.verifyGeneratedTests; }
 
-    public void setTestNamingPattern(String p)      { state.testNamingPattern = p; }
+    public void setTestNamingPattern(String p)      { state.testNamingPattern = p; compiledNamingPattern = null; }
     public void setOpenAfterGeneration(boolean v)   { state.openFileAfterGeneration = v; }
     public void setGenerateExceptionTests(boolean v){ state.generateExceptionTests = v; }
     public void setAddTodoComments(boolean v)       { state.addTodoComments = v; }
+    public void setUpdateTestsOnChange(boolean v)   { state.updateTestsOnChange = v; }
+    public void setVerifyGeneratedTests(boolean v)  { state.verifyGeneratedTests = v; }
+
+    /**
+     * The naming pattern compiled into segments. Compiled at most once per
+     * settings change, so naming a test method costs no parsing at all.
+     */
+    public TestNamingPattern getCompiledNamingPattern() {
+        TestNamingPattern compiled = compiledNamingPattern;
+        String source = state.testNamingPattern;
+        if (compiled == null || !compiled.getSource().equals(source)) {
+            // The State fields are public, so also guard against direct writes
+            compiled = TestNamingPattern.compile(source);
+            compiledNamingPattern = compiled;
+        }
+        return compiled;
+    }
 }
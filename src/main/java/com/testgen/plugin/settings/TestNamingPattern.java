@@ -0,0 +1,137 @@
+package com.testgen.plugin.settings;
+
+import com.testgen.plugin.model.ServiceClassInfo.MethodInfo;
+import com.testgen.plugin.model.ServiceClassInfo.ParamInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A test naming pattern compiled once into literal and placeholder segments,
+ * so naming a test is a single pass over a few segments with no searching.
+ *
+ * Placeholders:
+ *   {method}  method under test            findById
+ *   {Method}  same, capitalized            FindById
+ *   {suffix}  scenario                     Succeed, ThrowUserNotFoundException
+ *   {class}   class under test             UserService
+ *   {params}  parameter types, joined      LongString   (List<User> → List)
+ *
+ * Unknown placeholders are kept literally.
+ *
+ * Patterns saved before {suffix} lost its "should" prefix are rewritten with
+ * {@link #fromLegacy} when settings load, so existing tests keep their names.
+ */
+public final class TestNamingPattern {
+
+    private enum Placeholder { METHOD, METHOD_CAPITALIZED, SUFFIX, CLASS, PARAMS }
+
+    private final String source;
+    private final Object[] segments;      // String literal or Placeholder
+    private final int literalLength;
+
+    private TestNamingPattern(String source, Object[] segments, int literalLength) {
+        this.source        = source;
+        this.segments      = segments;
+        this.literalLength = literalLength;
+    }
+
+    public static TestNamingPattern compile(String pattern) {
+        List<Object> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int close = c == '{' ? pattern.indexOf('}', i) : -1;
+            Placeholder placeholder = close > 0 ? placeholder(pattern.substring(i + 1, close)) : null;
+
+            if (placeholder == null) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (literal.length() > 0) {
+                segments.add(literal.toString());
+                literalLength += literal.length();
+                literal.setLength(0);
+            }
+            segments.add(placeholder);
+            i = close + 1;
+        }
+        if (literal.length() > 0) {
+            segments.add(literal.toString());
+            literalLength += literal.length();
+        }
+        return new TestNamingPattern(pattern, segments.toArray(), literalLength);
+    }
+
+    private static Placeholder placeholder(String name) {
+        return switch (name) {
+            case "method" -> Placeholder.METHOD;
+            case "Method" -> Placeholder.METHOD_CAPITALIZED;
+            case "suffix" -> Placeholder.SUFFIX;
+            case "class"  -> Placeholder.CLASS;
+            case "params" -> Placeholder.PARAMS;
+            default       -> null;
+        };
+    }
+
+    /**
+     * Rewrites a pattern written for the old suffixes ("shouldSucceed",
+     * "shouldThrowX") so it names every test exactly as it did before.
+     */
+    public static String fromLegacy(String pattern) {
+        return pattern.replace("{suffix}", "should{suffix}");
+    }
+
+    public String getSource() { return source; }
+
+    /** Builds the test method name for one scenario of {@code method}. */
+    public String format(String className, MethodInfo method, String suffix) {
+        String methodName = method.methodName();
+        StringBuilder sb = new StringBuilder(literalLength + methodName.length() + suffix.length() + 16);
+
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                sb.append((String) segment);
+                continue;
+            }
+            switch ((Placeholder) segment) {
+                case METHOD             -> sb.append(methodName);
+                case METHOD_CAPITALIZED -> appendCapitalized(sb, methodName);
+                case SUFFIX             -> sb.append(suffix);
+                case CLASS              -> sb.append(className);
+                case PARAMS             -> appendParamTypes(sb, method.params());
+            }
+        }
+        return sb.toString();
+    }
+
+    // ── Helpers ────────────────────────────────────────────────────────────
+
+    /** "List<User>" → "List", "int[]" → "IntArray" — always a valid identifier part. */
+    private static void appendParamTypes(StringBuilder sb, List<ParamInfo> params) {
+        for (ParamInfo param : params) {
+            String type = param.typeName();
+            int generic = type.indexOf('<');
+            String raw  = generic >= 0 ? type.substring(0, generic) : type;
+
+            int start = sb.length();
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (Character.isJavaIdentifierPart(c)) sb.append(c);
+                else if (c == '[') sb.append("Array");
+            }
+            if (sb.length() > start) {
+                sb.setCharAt(start, Character.toUpperCase(sb.charAt(start)));
+            }
+        }
+    }
+
+    private static void appendCapitalized(StringBuilder sb, String name) {
+        if (name.isEmpty()) return;
+        sb.append(Character.toUpperCase(name.charAt(0))).append(name, 1, name.length());
+    }
+}
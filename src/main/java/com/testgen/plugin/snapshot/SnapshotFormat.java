@@ -0,0 +1,68 @@
+package com.testgen.plugin.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of a ServiceClassInfo snapshot file:
+ *
+ *   header   int32 MAGIC, int32 VERSION, sourceRoot, key   (strings inline:
+ *                                                       varint utf8Length, utf8 bytes)
+ *   records  one per class, every string as a varint index into the table:
+ *              package, class,
+ *              fieldCount  { type, name }
+ *              methodCount { name, returnType, flags, paramCount { type, name },
+ *                            exceptionCount { exception },
+ *                            callCount { field, method, argCount { type }, returnType,
+ *                                        callFlags, throwableCount { exception } } },
+ *              importCount { import }
+ *   table    varint count { varint utf8Length, utf8 bytes }
+ *   footer   int64 tableOffset, int32 recordCount, int32 MAGIC
+ *
+ * The table is written last so the writer can stream records as they are
+ * produced; the fixed-size footer lets a reader find it without scanning.
+ * The header says what was analyzed, so a stale or foreign snapshot can be
+ * told apart before its records are trusted.
+ *
+ * Counts and lengths are never trusted: each element takes at least one
+ * byte, so a count larger than the bytes left marks the file as corrupt.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC   = 0x5447534E; // "TGSN"
+    static final int VERSION = 7;
+
+    static final int HEADER_SIZE = 8; // fixed part, before the two strings
+    static final int FOOTER_SIZE = 16;
+
+    static final int FLAG_VOID = 1;
+
+    static final int FLAG_CONDITIONAL = 1;
+
+    private SnapshotFormat() {}
+
+    // ── Unsigned LEB128 varints ───────────────────────────────────────────
+
+    /** Returns the number of bytes written. */
+    static int writeVarInt(OutputStream out, int value) throws IOException {
+        int written = 1;
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+            written++;
+        }
+        out.write(value);
+        return written;
+    }
+
+    static int readVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("Malformed varint at offset " + (in.position() - 1));
+    }
+}
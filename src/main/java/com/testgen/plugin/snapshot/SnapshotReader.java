@@ -0,0 +1,205 @@
+package com.testgen.plugin.snapshot;
+
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.testgen.plugin.snapshot.SnapshotFormat.*;
+
+/**
+ * Loads a snapshot written by {@link SnapshotWriter}.
+ *
+ * Files are memory-mapped and decoded in place — nothing is read into an
+ * intermediate heap buffer. Each distinct string is decoded exactly once
+ * from the table; records then only resolve varint indexes into it.
+ */
+public final class SnapshotReader {
+
+    /** What a snapshot was taken of, as given to {@link SnapshotWriter}. */
+    public record Header(String sourceRoot, String key) {}
+
+    private SnapshotReader() {}
+
+    /** Reads only the header, to decide whether the snapshot can be used. */
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static Header readHeader(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.slice();
+        try {
+            return decodeHeader(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt snapshot", e);
+        }
+    }
+
+    public static List<ServiceClassInfo> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static List<ServiceClassInfo> read(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.slice();
+        try {
+            return decode(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt snapshot", e);
+        }
+    }
+
+    /** Checks the header and leaves {@code in} at the first record. */
+    private static Header decodeHeader(ByteBuffer in) throws IOException {
+        int size = in.limit();
+        if (size < HEADER_SIZE + FOOTER_SIZE
+                || in.getInt(0) != MAGIC
+                || in.getInt(size - 4) != MAGIC) {
+            throw new IOException("Not a ServiceClassInfo snapshot");
+        }
+        int version = in.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ", expected " + VERSION);
+        }
+        in.limit(size - FOOTER_SIZE).position(HEADER_SIZE);
+        Header header = new Header(readUtf8(in), readUtf8(in));
+        in.limit(size);
+        return header;
+    }
+
+    private static List<ServiceClassInfo> decode(ByteBuffer in) throws IOException {
+        decodeHeader(in);
+        int recordsStart = in.position();
+        int size = in.limit();
+
+        long tableOffset = in.getLong(size - FOOTER_SIZE);
+        int recordCount  = in.getInt(size - FOOTER_SIZE + 8);
+        // A record takes at least one byte
+        if (tableOffset < recordsStart || tableOffset > size - FOOTER_SIZE
+                || recordCount < 0 || recordCount > tableOffset - recordsStart) {
+            throw new IOException("Corrupt snapshot footer");
+        }
+
+        in.limit(size - FOOTER_SIZE).position((int) tableOffset);
+        String[] strings = readStringTable(in);
+
+        in.limit((int) tableOffset).position(recordsStart);
+        List<ServiceClassInfo> result = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            result.add(readRecord(in, strings));
+        }
+        if (in.position() != tableOffset) {
+            throw new IOException("Corrupt snapshot: records end at " + in.position() +
+                                  ", table starts at " + tableOffset);
+        }
+        return result;
+    }
+
+    private static String[] readStringTable(ByteBuffer in) throws IOException {
+        String[] strings = new String[readCount(in)];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readCount(in);
+            if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            in.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static ServiceClassInfo readRecord(ByteBuffer in, String[] strings) throws IOException {
+        String packageName = strings[readVarInt(in)];
+        String className   = strings[readVarInt(in)];
+
+        int fieldCount = readCount(in);
+        List<FieldInfo> fields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            fields.add(new FieldInfo(strings[readVarInt(in)], strings[readVarInt(in)]));
+        }
+
+        int methodCount = readCount(in);
+        List<MethodInfo> methods = new ArrayList<>(methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            String name       = strings[readVarInt(in)];
+            String returnType = strings[readVarInt(in)];
+            boolean isVoid    = (in.get() & FLAG_VOID) != 0;
+
+            int paramCount = readCount(in);
+            List<ParamInfo> params = new ArrayList<>(paramCount);
+            for (int p = 0; p < paramCount; p++) {
+                params.add(new ParamInfo(strings[readVarInt(in)], strings[readVarInt(in)]));
+            }
+
+            int exceptionCount = readCount(in);
+            List<String> exceptions = new ArrayList<>(exceptionCount);
+            for (int e = 0; e < exceptionCount; e++) {
+                exceptions.add(strings[readVarInt(in)]);
+            }
+
+            int callCount = readCount(in);
+            List<DependencyCall> calls = new ArrayList<>(callCount);
+            for (int c = 0; c < callCount; c++) {
+                String fieldName  = strings[readVarInt(in)];
+                String methodName = strings[readVarInt(in)];
+                int argCount = readCount(in);
+                List<String> argTypes = new ArrayList<>(argCount);
+                for (int a = 0; a < argCount; a++) {
+                    argTypes.add(strings[readVarInt(in)]);
+                }
+                String callReturnType = strings[readVarInt(in)];
+                boolean conditional   = (in.get() & FLAG_CONDITIONAL) != 0;
+                int throwableCount = readCount(in);
+                List<String> throwable = new ArrayList<>(throwableCount);
+                for (int t = 0; t < throwableCount; t++) {
+                    throwable.add(strings[readVarInt(in)]);
+                }
+                calls.add(new DependencyCall(fieldName, methodName, argTypes, callReturnType,
+                                             conditional, throwable));
+            }
+
+            methods.add(new MethodInfo(name, returnType, isVoid, params, exceptions, calls));
+        }
+
+        int importCount = readCount(in);
+        List<String> imports = new ArrayList<>(importCount);
+        for (int i = 0; i < importCount; i++) {
+            imports.add(strings[readVarInt(in)]);
+        }
+
+        return new ServiceClassInfo(packageName, className, fields, methods, imports);
+    }
+
+    // ── Primitives ────────────────────────────────────────────────────────
+
+    private static String readUtf8(ByteBuffer in) throws IOException {
+        byte[] utf8 = new byte[readCount(in)];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A count or length, checked against the bytes left before anything is
+     * allocated for it: every element takes at least one byte.
+     */
+    private static int readCount(ByteBuffer in) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Corrupt snapshot: count " + Integer.toUnsignedString(count) +
+                                  " at offset " + in.position() + " exceeds the " +
+                                  in.remaining() + " bytes left");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+package com.testgen.plugin.snapshot;
+
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.testgen.plugin.snapshot.SnapshotFormat.*;
+
+/**
+ * Streams ServiceClassInfo records into a snapshot (see {@link SnapshotFormat}).
+ * Records go to the output as they are added; only the string table is
+ * kept in memory until {@link #close()}, and its size is bounded by the
+ * project's vocabulary rather than the number of classes.
+ *
+ *   try (SnapshotWriter writer = SnapshotWriter.create(path, sourceRoot, commitSha)) {
+ *       for (ServiceClassInfo info : infos) writer.add(info);
+ *   }
+ */
+public final class SnapshotWriter implements Closeable {
+
+    private final OutputStream out;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private long offset;
+    private int records;
+    private boolean closed;
+
+    /**
+     * @param sourceRoot the directory that was analyzed
+     * @param key        identifies its content, e.g. a commit SHA
+     */
+    public SnapshotWriter(OutputStream out, String sourceRoot, String key) throws IOException {
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+        writeInt(MAGIC);
+        writeInt(VERSION);
+        writeUtf8(sourceRoot);
+        writeUtf8(key);
+    }
+
+    public static SnapshotWriter create(Path file, String sourceRoot, String key) throws IOException {
+        return new SnapshotWriter(Files.newOutputStream(file), sourceRoot, key);
+    }
+
+    public void add(ServiceClassInfo info) throws IOException {
+        writeString(info.packageName());
+        writeString(info.className());
+
+        writeCount(info.injectedFields().size());
+        for (FieldInfo field : info.injectedFields()) {
+            writeString(field.typeName());
+            writeString(field.fieldName());
+        }
+
+        writeCount(info.publicMethods().size());
+        for (MethodInfo method : info.publicMethods()) {
+            writeString(method.methodName());
+            writeString(method.returnType());
+            out.write(method.isVoid() ? FLAG_VOID : 0);
+            offset++;
+
+            writeCount(method.params().size());
+            for (ParamInfo param : method.params()) {
+                writeString(param.typeName());
+                writeString(param.paramName());
+            }
+
+            writeCount(method.thrownExceptions().size());
+            for (String ex : method.thrownExceptions()) {
+                writeString(ex);
+            }
+
+            writeCount(method.dependencyCalls().size());
+            for (DependencyCall call : method.dependencyCalls()) {
+                writeString(call.fieldName());
+                writeString(call.methodName());
+                writeCount(call.argTypes().size());
+                for (String argType : call.argTypes()) {
+                    writeString(argType);
+                }
+                writeString(call.returnType());
+                out.write(call.conditional() ? FLAG_CONDITIONAL : 0);
+                offset++;
+                writeCount(call.throwable().size());
+                for (String ex : call.throwable()) {
+                    writeString(ex);
+                }
+            }
+        }
+
+        writeCount(info.imports().size());
+        for (String imp : info.imports()) {
+            writeString(imp);
+        }
+        records++;
+    }
+
+    /** Writes the string table and footer, then closes the stream. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            long tableOffset = offset;
+            writeCount(strings.size());
+            for (String s : strings) {
+                writeUtf8(s);
+            }
+            writeLong(tableOffset);
+            writeInt(records);
+            writeInt(MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+
+    // ── Primitives ────────────────────────────────────────────────────────
+
+    private void writeString(String s) throws IOException {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(s, id);
+            strings.add(s);
+        }
+        writeCount(id);
+    }
+
+    private void writeUtf8(String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeCount(utf8.length);
+        out.write(utf8);
+        offset += utf8.length;
+    }
+
+    private void writeCount(int value) throws IOException {
+        offset += writeVarInt(out, value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+        offset += 4;
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.testgen.plugin.ui;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.testgen.plugin.diagnostics.GenerationStage;
+import com.testgen.plugin.diagnostics.GenerationStatistics;
+import com.testgen.plugin.diagnostics.GenerationStatistics.StageSummary;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+
+/**
+ * Shows p50 / p95 time and allocation per generation stage for this
+ * IDE session. Detailed per-run data is in JFR recordings.
+ */
+public class GenerationStatisticsDialog extends DialogWrapper {
+
+    private static final String[] COLUMNS = {
+        "Stage", "Runs", "p50 time", "p95 time", "p50 allocated", "p95 allocated"
+    };
+
+    private final DefaultTableModel model = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) { return false; }
+    };
+
+    public GenerationStatisticsDialog(@Nullable Project project) {
+        super(project, false);
+        setTitle("JUnit Test Generator — Stage Statistics");
+        setOKButtonText("Close");
+        init();
+        refresh();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.setPreferredSize(new Dimension(620, 220));
+
+        panel.add(new JBScrollPane(new JBTable(model)), BorderLayout.CENTER);
+
+        JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        JButton reset = new JButton("Reset");
+        reset.addActionListener(e -> {
+            GenerationStatistics.getInstance().reset();
+            refresh();
+        });
+        footer.add(reset);
+
+        JBLabel hint = new JBLabel(
+            "  Per-run events: record with JFR and look for \"Test Generation Stage\"");
+        hint.setForeground(new Color(130, 130, 130));
+        hint.setFont(hint.getFont().deriveFont(11f));
+        footer.add(hint);
+
+        panel.add(footer, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    @Override
+    protected Action @Nullable [] createActions() {
+        return new Action[]{getOKAction()};
+    }
+
+    private void refresh() {
+        model.setRowCount(0);
+        GenerationStatistics statistics = GenerationStatistics.getInstance();
+        for (GenerationStage stage : GenerationStage.values()) {
+            StageSummary s = statistics.summarize(stage);
+            model.addRow(new Object[]{
+                stage.getDisplayName(),
+                s.getCount(),
+                formatNanos(s.getP50Nanos()),
+                formatNanos(s.getP95Nanos()),
+                formatBytes(s.getP50Bytes()),
+                formatBytes(s.getP95Bytes())
+            });
+        }
+    }
+
+    // ── Formatting ─────────────────────────────────────────────────────────
+
+    private String formatNanos(long nanos) {
+        return nanos < 0 ? "—" : String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+
+    private String formatBytes(long bytes) {
+        return bytes < 0 ? "—" : StringUtil.formatFileSize(bytes);
+    }
+}
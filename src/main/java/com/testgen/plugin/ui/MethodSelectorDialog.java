@@ -2,35 +2,55 @@ package com.testgen.plugin.ui;
 
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
-import com.intellij.ui.CheckBoxList;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.ListSpeedSearch;
+import com.intellij.ui.SearchTextField;
 import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
 import com.intellij.ui.components.JBScrollPane;
 import com.testgen.plugin.model.ServiceClassInfo;
 import com.testgen.plugin.model.ServiceClassInfo.MethodInfo;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Dialog shown before generating tests.
  * Lists all public methods with checkboxes — user picks which ones to test.
  *
  * Shows method signature, return type, and param count for clarity.
+ *
+ * Built for classes with hundreds of methods (generated gRPC stubs,
+ * facades): the list is virtual — one shared renderer, fixed row size, and
+ * a label is only built the first time its row is painted. The filter
+ * field matches name, return type or thrown exception; typing in the list
+ * itself speed-searches method names. Space or a click toggles a row.
  */
 public class MethodSelectorDialog extends DialogWrapper {
 
     private final ServiceClassInfo info;
-    private final CheckBoxList<MethodInfo> checkBoxList;
+    private final MethodListModel model;
+    private final JBList<MethodInfo> list;
 
     public MethodSelectorDialog(Project project, ServiceClassInfo info) {
         super(project, true);
-        this.info = info;
-        this.checkBoxList = new CheckBoxList<>();
+        this.info  = info;
+        this.model = new MethodListModel(info.publicMethods());
+        this.list  = new JBList<>(model);
 
-        setTitle("Generate JUnit Tests — " + info.getClassName());
+        setTitle("Generate JUnit Tests — " + info.className());
         setOKButtonText("Generate Tests");
         init();
     }
@@ -40,33 +60,49 @@ public class MethodSelectorDialog extends DialogWrapper {
         JPanel panel = new JPanel(new BorderLayout(0, 10));
         panel.setPreferredSize(new Dimension(480, 320));
 
-        // Header label
+        // Header label + filter
+        JPanel north = new JPanel(new BorderLayout(0, 4));
         JBLabel header = new JBLabel(
-            "<html><b>" + info.getClassName() + "</b> — select methods to test</html>");
-        header.setBorder(BorderFactory.createEmptyBorder(0, 0, 8, 0));
-        panel.add(header, BorderLayout.NORTH);
-
-        // Populate checkbox list
-        for (MethodInfo method : info.getPublicMethods()) {
-            String label = buildMethodLabel(method);
-            checkBoxList.addItem(method, label, true); // all checked by default
-        }
+            "<html><b>" + info.className() + "</b> — select methods to test</html>");
+        north.add(header, BorderLayout.NORTH);
+
+        SearchTextField filter = new SearchTextField(false);
+        filter.getTextEditor().getEmptyText().setText("Filter by name, return type or exception");
+        filter.addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                model.setFilter(filter.getText());
+            }
+        });
+        north.add(filter, BorderLayout.SOUTH);
+        north.setBorder(BorderFactory.createEmptyBorder(0, 0, 8, 0));
+        panel.add(north, BorderLayout.NORTH);
+
+        // Virtual checkbox list
+        MethodRenderer renderer = new MethodRenderer();
+        list.setCellRenderer(renderer);
+        list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        // Fixed row size: Swing then never measures rows that aren't visible
+        list.setFixedCellHeight(renderer.getPreferredSize().height);
+        list.setFixedCellWidth(1);
+        installToggles();
+        ListSpeedSearch.installOn(list, MethodInfo::methodName);
 
-        panel.add(new JBScrollPane(checkBoxList), BorderLayout.CENTER);
+        panel.add(new JBScrollPane(list), BorderLayout.CENTER);
 
-        // Footer with select-all / deselect-all
+        // Footer with select-all / deselect-all (of the rows shown)
         JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
         JButton selectAll   = new JButton("Select All");
         JButton deselectAll = new JButton("Deselect All");
 
-        selectAll.addActionListener(e -> setAllChecked(true));
-        deselectAll.addActionListener(e -> setAllChecked(false));
+        selectAll.addActionListener(e -> model.setAllVisibleChecked(true));
+        deselectAll.addActionListener(e -> model.setAllVisibleChecked(false));
 
         footer.add(selectAll);
         footer.add(deselectAll);
 
         JBLabel hint = new JBLabel(
-            "  " + info.getInjectedFields().size() + " @Mock dep(s) detected");
+            "  " + info.injectedFields().size() + " @Mock dep(s) detected");
         hint.setForeground(new Color(130, 130, 130));
         hint.setFont(hint.getFont().deriveFont(11f));
         footer.add(hint);
@@ -75,38 +111,166 @@ public class MethodSelectorDialog extends DialogWrapper {
         return panel;
     }
 
+    @Override
+    public @Nullable JComponent getPreferredFocusedComponent() {
+        return list;
+    }
+
+    /** Checked methods, in declaration order — including any filtered out. */
     public List<MethodInfo> getSelectedMethods() {
-        List<MethodInfo> selected = new ArrayList<>();
-        for (int i = 0; i < checkBoxList.getItemsCount(); i++) {
-            if (checkBoxList.isItemSelected(i)) {
-                selected.add(checkBoxList.getItemAt(i));
+        return model.getChecked();
+    }
+
+    // ── Toggling ───────────────────────────────────────────────────────────
+
+    private void installToggles() {
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = list.locationToIndex(e.getPoint());
+                if (row >= 0 && list.getCellBounds(row, row).contains(e.getPoint())) {
+                    model.toggle(row);
+                }
+            }
+        });
+        list.getInputMap(JComponent.WHEN_FOCUSED)
+            .put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "toggleMethod");
+        list.getActionMap().put("toggleMethod", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                int[] rows = list.getSelectedIndices();
+                if (rows.length == 0) return;
+                // Like a tri-state: all on unless every selected row already is
+                boolean check = false;
+                for (int row : rows) check |= !model.isChecked(row);
+                for (int row : rows) model.setChecked(row, check);
             }
+        });
+    }
+
+    // ── Model: filtered view over the methods + checked state ─────────────
+
+    private static final class MethodListModel extends AbstractListModel<MethodInfo> {
+        private final List<MethodInfo> methods;
+        private final BitSet checked;
+        private final String[] labels;     // built lazily by the renderer
+        private int[] visible;             // row → index into methods
+
+        MethodListModel(List<MethodInfo> methods) {
+            this.methods = methods;
+            this.checked = new BitSet(methods.size());
+            this.labels  = new String[methods.size()];
+            checked.set(0, methods.size()); // all checked by default
+            showAll();
+        }
+
+        @Override public int getSize()                  { return visible.length; }
+        @Override public MethodInfo getElementAt(int row) { return methods.get(visible[row]); }
+
+        boolean isChecked(int row) { return checked.get(visible[row]); }
+
+        void toggle(int row) { setChecked(row, !isChecked(row)); }
+
+        void setChecked(int row, boolean value) {
+            checked.set(visible[row], value);
+            fireContentsChanged(this, row, row);
+        }
+
+        void setAllVisibleChecked(boolean value) {
+            for (int index : visible) checked.set(index, value);
+            if (visible.length > 0) fireContentsChanged(this, 0, visible.length - 1);
+        }
+
+        List<MethodInfo> getChecked() {
+            List<MethodInfo> result = new ArrayList<>(checked.cardinality());
+            for (int i = checked.nextSetBit(0); i >= 0; i = checked.nextSetBit(i + 1)) {
+                result.add(methods.get(i));
+            }
+            return result;
+        }
+
+        String label(int row) {
+            int index = visible[row];
+            String label = labels[index];
+            if (label == null) labels[index] = label = buildMethodLabel(methods.get(index));
+            return label;
+        }
+
+        void setFilter(String text) {
+            String needle = text.trim().toLowerCase(Locale.ROOT);
+            int oldSize = visible.length;
+            if (needle.isEmpty()) {
+                showAll();
+            } else {
+                int[] matches = new int[methods.size()];
+                int count = 0;
+                for (int i = 0; i < methods.size(); i++) {
+                    if (matches(methods.get(i), needle)) matches[count++] = i;
+                }
+                visible = Arrays.copyOf(matches, count);
+            }
+            if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+            if (visible.length > 0) fireIntervalAdded(this, 0, visible.length - 1);
+        }
+
+        private void showAll() {
+            visible = new int[methods.size()];
+            for (int i = 0; i < visible.length; i++) visible[i] = i;
+        }
+
+        private static boolean matches(MethodInfo method, String needle) {
+            if (containsIgnoreCase(method.methodName(), needle)
+                    || containsIgnoreCase(method.returnType(), needle)) return true;
+            for (String ex : method.thrownExceptions()) {
+                if (containsIgnoreCase(ex, needle)) return true;
+            }
+            return false;
+        }
+
+        private static boolean containsIgnoreCase(String haystack, String lowerNeedle) {
+            return haystack.toLowerCase(Locale.ROOT).contains(lowerNeedle);
+        }
+    }
+
+    // ── Renderer: one checkbox painted for every row ──────────────────────
+
+    private final class MethodRenderer extends JCheckBox implements ListCellRenderer<MethodInfo> {
+        MethodRenderer() {
+            setText("void prototype(String value)");
+            setBorder(BorderFactory.createEmptyBorder(1, 4, 1, 4));
+            setBorderPainted(true);
+            setOpaque(true);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends MethodInfo> list, MethodInfo value,
+                                                      int row, boolean isSelected, boolean cellHasFocus) {
+            String label = model.label(row);
+            setText(label);
+            setToolTipText(label);
+            setSelected(model.isChecked(row));
+            setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+            setForeground(isSelected ? list.getSelectionForeground() : list.getForeground());
+            setFont(list.getFont());
+            return this;
         }
-        return selected;
     }
 
     // ── Helpers ────────────────────────────────────────────────────────────
 
-    private String buildMethodLabel(MethodInfo method) {
+    private static String buildMethodLabel(MethodInfo method) {
         StringBuilder sb = new StringBuilder();
-        sb.append(method.getReturnType()).append("  ");
-        sb.append(method.getMethodName()).append("(");
-        List<ServiceClassInfo.ParamInfo> params = method.getParams();
+        sb.append(method.returnType()).append("  ");
+        sb.append(method.methodName()).append("(");
+        List<ServiceClassInfo.ParamInfo> params = method.params();
         for (int i = 0; i < params.size(); i++) {
             if (i > 0) sb.append(", ");
-            sb.append(params.get(i).getTypeName()).append(" ").append(params.get(i).getParamName());
+            sb.append(params.get(i).typeName()).append(" ").append(params.get(i).paramName());
         }
         sb.append(")");
-        if (!method.getThrownExceptions().isEmpty()) {
-            sb.append("  throws ").append(String.join(", ", method.getThrownExceptions()));
+        if (!method.thrownExceptions().isEmpty()) {
+            sb.append("  throws ").append(String.join(", ", method.thrownExceptions()));
         }
         return sb.toString();
     }
-
-    private void setAllChecked(boolean checked) {
-        for (int i = 0; i < checkBoxList.getItemsCount(); i++) {
-            checkBoxList.setItemSelected(checkBoxList.getItemAt(i), checked);
-        }
-        checkBoxList.repaint();
-    }
 }
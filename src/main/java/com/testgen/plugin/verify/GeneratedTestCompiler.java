@@ -0,0 +1,136 @@
+package com.testgen.plugin.verify;
+
+import com.sun.source.util.JavacTask;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compiles generated test sources in memory to catch code that would show
+ * up red in the editor — missing imports, unresolvable types, bad stubs.
+ *
+ * All sources handed to one {@link #check} call go through a single
+ * compiler invocation, so checking a whole module costs one pass: the JDK
+ * and the classpath jars are opened and their symbols loaded once, not
+ * once per file. Nothing touches the disk: sources are in-memory file
+ * objects, and javac only attributes them ({@link JavacTask#analyze()}) —
+ * no class files are produced. Referenced classes come from the classpath,
+ * or are read from the source path when not compiled yet.
+ *
+ * Pure javax.tools — no PSI dependency.
+ */
+public final class GeneratedTestCompiler {
+
+    /** One compile error in a generated source. */
+    public record Problem(String className, long line, String message) {
+        @Override
+        public String toString() {
+            return className + ":" + line + ": " + message;
+        }
+    }
+
+    private static final List<String> OPTIONS = List.of(
+        "-proc:none",      // no annotation processors: they'd need their own path
+        "-implicit:none",  // don't generate classes for sources pulled from the source path
+        "-nowarn",
+        "-Xlint:none");
+
+    private final List<File> classpath;
+    private final List<File> sourcepath;
+
+    public GeneratedTestCompiler(List<File> classpath, List<File> sourcepath) {
+        this.classpath  = List.copyOf(classpath);
+        this.sourcepath = List.copyOf(sourcepath);
+    }
+
+    /** False on a JRE without the jdk.compiler module. */
+    public static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    /**
+     * Compiles {@code sources} (qualified class name → source) in one pass.
+     * Returns the errors found in them, in compiler order; errors javac
+     * reports in other files (e.g. on the source path) are not included.
+     */
+    public List<Problem> check(Map<String, String> sources) throws IOException {
+        if (sources.isEmpty()) return List.of();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IOException("No Java compiler available in this runtime");
+
+        List<SourceFile> units = new ArrayList<>(sources.size());
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            units.add(new SourceFile(entry.getKey(), entry.getValue()));
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager standard =
+                 compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8);
+             JavaFileManager fileManager = new InMemoryFileManager(standard)) {
+            standard.setLocation(StandardLocation.CLASS_PATH, classpath);
+            standard.setLocation(StandardLocation.SOURCE_PATH, sourcepath);
+
+            JavaCompiler.CompilationTask task =
+                compiler.getTask(null, fileManager, diagnostics, OPTIONS, null, units);
+            if (task instanceof JavacTask) {
+                ((JavacTask) task).analyze(); // attribute + flow, no bytecode
+            } else {
+                task.call();
+            }
+        }
+
+        List<Problem> problems = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) continue;
+            if (!(diagnostic.getSource() instanceof SourceFile)) continue;
+            problems.add(new Problem(((SourceFile) diagnostic.getSource()).className,
+                                     diagnostic.getLineNumber(),
+                                     diagnostic.getMessage(Locale.ROOT)));
+        }
+        return problems;
+    }
+
+    // ── In-memory file objects ────────────────────────────────────────────
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String className;
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension),
+                  Kind.SOURCE);
+            this.className = className;
+            this.source    = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    /** Discards anything javac would write, should a task ever generate. */
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        InMemoryFileManager(StandardJavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(
+                    URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return OutputStream.nullOutputStream();
+                }
+            };
+        }
+    }
+}
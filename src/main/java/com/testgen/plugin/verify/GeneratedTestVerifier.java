@@ -0,0 +1,204 @@
+package com.testgen.plugin.verify;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.testgen.plugin.actions.GenerateTestsAction;
+import com.testgen.plugin.diagnostics.GenerationStage;
+import com.testgen.plugin.diagnostics.StageTimer;
+import com.testgen.plugin.generator.TestFileWriter;
+import com.testgen.plugin.verify.GeneratedTestCompiler.Problem;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Optional last stage (Settings → "Compile-check generated tests"): compiles
+ * the test files just written with {@link GeneratedTestCompiler} and reports
+ * any errors in a notification, before the user opens a red file.
+ *
+ * Pipeline:
+ *   1. Read the written files and their modules' paths   (one read action)
+ *   2. Compile, one pass per module               (background, no read action)
+ *   3. Notify                                                        (EDT)
+ *
+ * A module's classpath and source path are cached until the project roots
+ * change, so checking after every generation doesn't re-walk dependencies.
+ */
+public class GeneratedTestVerifier {
+
+    private static final Key<CachedValue<ModulePaths>> MODULE_PATHS =
+        Key.create("com.testgen.plugin.ModulePaths");
+
+    private static final int PROBLEMS_SHOWN = 5;
+
+    private final Project project;
+
+    public GeneratedTestVerifier(Project project) {
+        this.project = project;
+    }
+
+    /** Checks the test files for {@code written}; returns immediately. Call on the EDT. */
+    public void verifyInBackground(List<TestFileWriter.Request> written) {
+        if (written.isEmpty()) return;
+        if (!GeneratedTestCompiler.isAvailable()) {
+            notify("Compile check skipped: the IDE runtime has no Java compiler.",
+                   NotificationType.WARNING);
+            return;
+        }
+
+        new Task.Backgroundable(project, "Compile-checking generated tests", true) {
+            private final List<Problem> problems = new ArrayList<>();
+            private int checked;
+            private String failure;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                // ── 1. Sources + paths ────────────────────────────────────
+                Collection<Batch> batches = ReadAction.nonBlocking(() -> collect(written))
+                    .wrapProgress(indicator)
+                    .expireWith(project)
+                    .executeSynchronously();
+
+                // ── 2. Compile ────────────────────────────────────────────
+                try (StageTimer ignored = StageTimer.start(GenerationStage.VERIFY, null)) {
+                    for (Batch batch : batches) {
+                        indicator.checkCanceled();
+                        indicator.setText("Compiling " + batch.sources.size() + " test file(s) in " +
+                                          batch.moduleName);
+                        problems.addAll(new GeneratedTestCompiler(batch.paths.classpath(),
+                                                                  batch.paths.sourcepath())
+                                            .check(batch.sources));
+                        checked += batch.sources.size();
+                    }
+                } catch (IOException e) {
+                    failure = e.getMessage();
+                }
+            }
+
+            // ── 3. Notify ─────────────────────────────────────────────────
+            @Override
+            public void onSuccess() {
+                if (failure != null) {
+                    notify("Compile check failed: " + StringUtil.escapeXmlEntities(failure),
+                           NotificationType.WARNING);
+                } else if (problems.isEmpty()) {
+                    notify("Compile check passed for " + checked + " test file(s).",
+                           NotificationType.INFORMATION);
+                } else {
+                    notify(describe(problems), NotificationType.WARNING);
+                }
+            }
+        }.queue();
+    }
+
+    // ── 1. Collect ─────────────────────────────────────────────────────────
+
+    /** One compiler pass: a module's written test files and its paths. */
+    private static final class Batch {
+        final String moduleName;
+        final ModulePaths paths;
+        final Map<String, String> sources = new LinkedHashMap<>(); // qualified name → text
+
+        Batch(String moduleName, ModulePaths paths) {
+            this.moduleName = moduleName;
+            this.paths      = paths;
+        }
+    }
+
+    private Collection<Batch> collect(List<TestFileWriter.Request> written) {
+        TestFileWriter writer = new TestFileWriter(project);
+        FileDocumentManager documents = FileDocumentManager.getInstance();
+        Map<Module, Batch> batches = new LinkedHashMap<>();
+
+        for (TestFileWriter.Request request : written) {
+            if (!request.sourceFile().isValid()) continue;
+            Module module = ModuleUtilCore.findModuleForFile(request.sourceFile(), project);
+            VirtualFile testFile = writer.findExistingTestFile(request.sourceFile(), request.info());
+            if (module == null || testFile == null) continue;
+
+            // The document, not the disk: the write may not be saved yet
+            Document document = documents.getDocument(testFile);
+            if (document == null) continue;
+
+            batches.computeIfAbsent(module, m -> new Batch(m.getName(), modulePaths(m)))
+                .sources.put(request.info().testQualifiedName(), document.getText());
+        }
+        return batches.values();
+    }
+
+    // ── Module paths (cached) ─────────────────────────────────────────────
+
+    private record ModulePaths(List<File> classpath, List<File> sourcepath) {}
+
+    private ModulePaths modulePaths(Module module) {
+        return CachedValuesManager.getManager(project).getCachedValue(module, MODULE_PATHS, () ->
+            CachedValueProvider.Result.create(computeModulePaths(module),
+                                              ProjectRootManager.getInstance(project)),
+            false);
+    }
+
+    private static ModulePaths computeModulePaths(Module module) {
+        // Test scope with dependencies, without the JDK: javac brings its own.
+        // Sources let classes that haven't been compiled yet resolve too.
+        List<String> classes = OrderEnumerator.orderEntries(module).withoutSdk().recursively()
+            .classes().getPathsList().getPathList();
+        List<String> sources = OrderEnumerator.orderEntries(module).withoutSdk().withoutLibraries()
+            .recursively().sources().getPathsList().getPathList();
+        return new ModulePaths(toFiles(classes), toFiles(sources));
+    }
+
+    private static List<File> toFiles(List<String> paths) {
+        List<File> files = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            files.add(new File(path));
+        }
+        return files;
+    }
+
+    // ── Notifications ─────────────────────────────────────────────────────
+
+    private static String describe(List<Problem> problems) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(problems.size()).append(" compile error(s) in generated tests:");
+        for (int i = 0; i < Math.min(problems.size(), PROBLEMS_SHOWN); i++) {
+            Problem problem = problems.get(i);
+            sb.append("<br>").append(StringUtil.getShortName(problem.className()))
+              .append(".java:").append(problem.line()).append(": ")
+              .append(StringUtil.escapeXmlEntities(problem.message().lines().findFirst().orElse("")));
+        }
+        if (problems.size() > PROBLEMS_SHOWN) {
+            sb.append("<br>… and ").append(problems.size() - PROBLEMS_SHOWN).append(" more");
+        }
+        return sb.toString();
+    }
+
+    private void notify(String message, NotificationType type) {
+        Notifications.Bus.notify(
+            new Notification(
+                GenerateTestsAction.NOTIFICATION_GROUP_ID,
+                type == NotificationType.INFORMATION ? "✅ JUnit Tests Compile" : "⚠️ JUnit Generator",
+                message,
+                type
+            ), project);
+    }
+}
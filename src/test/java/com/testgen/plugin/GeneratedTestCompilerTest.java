@@ -0,0 +1,185 @@
+package com.testgen.plugin;
+
+import com.testgen.plugin.generator.TestCodeGenerator;
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.*;
+import com.testgen.plugin.settings.TestGeneratorSettings;
+import com.testgen.plugin.settings.TestNamingPattern;
+import com.testgen.plugin.verify.GeneratedTestCompiler;
+import com.testgen.plugin.verify.GeneratedTestCompiler.Problem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GeneratedTestCompilerTest {
+
+    @TempDir
+    Path sources;
+
+    private GeneratedTestCompiler compiler;
+    private TestCodeGenerator generator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // The classes under test, on the source path — not compiled beforehand
+        write("com/example/User.java",
+            "package com.example; public class User {}");
+        write("com/example/UserRepository.java",
+            "package com.example; public interface UserRepository {" +
+            "  User findById(Long id); void deleteById(Long id); }");
+        write("com/example/UserService.java",
+            "package com.example; public class UserService {" +
+            "  private final UserRepository userRepository;" +
+            "  public UserService(UserRepository userRepository) { this.userRepository = userRepository; }" +
+            "  public User findById(Long id) { return userRepository.findById(id); }" +
+            "  public void deleteUser(Long id) { userRepository.deleteById(id); } }");
+        // mockito-junit-jupiter isn't a test dependency; only its name matters here
+        write("org/mockito/junit/jupiter/MockitoExtension.java",
+            "package org.mockito.junit.jupiter;" +
+            "public class MockitoExtension implements org.junit.jupiter.api.extension.Extension {}");
+
+        // JUnit and Mockito: the jars the test runtime loaded them from
+        List<File> classpath = List.of(
+            jarOf(org.junit.jupiter.api.Test.class),
+            jarOf(org.junit.jupiter.api.extension.ExtendWith.class),
+            jarOf(org.mockito.Mockito.class));
+        compiler = new GeneratedTestCompiler(classpath, List.of(sources.toFile()));
+
+        TestGeneratorSettings settings = mock(TestGeneratorSettings.class);
+        when(settings.getCompiledNamingPattern())
+            .thenReturn(TestNamingPattern.compile("{method}_should{suffix}"));
+        generator = new TestCodeGenerator(settings);
+    }
+
+    @Test
+    void check_shouldAcceptGeneratedTestsInOneBatch() throws IOException {
+        Map<String, String> batch = new LinkedHashMap<>();
+        batch.put("com.example.UserServiceTest", generator.generate(userService()));
+        batch.put("com.example.OtherTest", "package com.example; class OtherTest { User user; }");
+
+        assertEquals(List.of(), compiler.check(batch));
+    }
+
+    @Test
+    void check_shouldReportErrorsPerGeneratedClass() throws IOException {
+        Map<String, String> batch = new LinkedHashMap<>();
+        batch.put("com.example.UserServiceTest", generator.generate(userService()));
+        batch.put("com.example.BrokenTest",
+            "package com.example;\nclass BrokenTest {\n    MissingType field;\n}\n");
+
+        List<Problem> problems = compiler.check(batch);
+        assertEquals(1, problems.size());
+        assertEquals("com.example.BrokenTest", problems.get(0).className());
+        assertEquals(3, problems.get(0).line());
+        assertTrue(problems.get(0).message().contains("MissingType"));
+    }
+
+    @Test
+    void check_shouldAcceptThrowingMethodsAndImportedTypes() throws IOException {
+        write("com/example/UserNotFoundException.java",
+            "package com.example; public class UserNotFoundException extends RuntimeException {" +
+            "  public UserNotFoundException(String message) { super(message); } }");
+        write("com/example/UserFinder.java",
+            "package com.example; import java.util.Optional; public class UserFinder {" +
+            "  private final UserRepository userRepository;" +
+            "  public UserFinder(UserRepository userRepository) { this.userRepository = userRepository; }" +
+            "  public Optional<User> find(Long id) throws UserNotFoundException {" +
+            "    return Optional.ofNullable(userRepository.findById(id)); } }");
+        ServiceClassInfo finder = new ServiceClassInfo("com.example", "UserFinder",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            List.of(new MethodInfo("find", "Optional<User>", false,
+                List.of(new ParamInfo("Long", "id")), List.of("UserNotFoundException"),
+                List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "User")))),
+            List.of("java.util.Optional"));
+
+        assertEquals(List.of(), compiler.check(Map.of("com.example.UserFinderTest",
+                                                      generator.generate(finder))));
+    }
+
+    @Test
+    void check_shouldAcceptSameNamedDomainTypesWithOneQualified() throws IOException {
+        write("com/a/Event.java", "package com.a; public class Event {}");
+        write("com/b/Event.java", "package com.b; public class Event {}");
+        write("com/example/EventMapper.java",
+            "package com.example; public interface EventMapper {" +
+            "  com.b.Event map(com.a.Event event); }");
+        write("com/example/EventRelay.java",
+            "package com.example; import com.a.Event; public class EventRelay {" +
+            "  private final EventMapper eventMapper;" +
+            "  public EventRelay(EventMapper eventMapper) { this.eventMapper = eventMapper; }" +
+            "  public com.b.Event relay(Event event) { return eventMapper.map(event); } }");
+        // As the analyzer renders it: com.a.Event claims the simple name
+        ServiceClassInfo relay = new ServiceClassInfo("com.example", "EventRelay",
+            List.of(new FieldInfo("EventMapper", "eventMapper")),
+            List.of(new MethodInfo("relay", "com.b.Event", false,
+                List.of(new ParamInfo("Event", "event")), List.of(),
+                List.of(new DependencyCall("eventMapper", "map", List.of("Event"), "com.b.Event")))),
+            List.of("com.a.Event"));
+
+        assertEquals(List.of(), compiler.check(Map.of("com.example.EventRelayTest",
+                                                      generator.generate(relay))));
+    }
+
+    @Test
+    void check_shouldAcceptTestsOfSameNamedNestedClasses() throws IOException {
+        String create = "  public static class Create {" +
+            "    private final UserRepository userRepository;" +
+            "    public Create(UserRepository userRepository) { this.userRepository = userRepository; }" +
+            "    public User findById(Long id) { return userRepository.findById(id); } }";
+        write("com/example/Handlers.java", "package com.example; public class Handlers {" + create + "}");
+        write("com/example/Commands.java", "package com.example; public class Commands {" + create + "}");
+
+        Map<String, String> batch = new LinkedHashMap<>();
+        for (String outer : List.of("Handlers", "Commands")) {
+            ServiceClassInfo info = new ServiceClassInfo("com.example", outer + ".Create",
+                List.of(new FieldInfo("UserRepository", "userRepository")),
+                List.of(new MethodInfo("findById", "User", false,
+                    List.of(new ParamInfo("Long", "id")), List.of(),
+                    List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "User")))));
+            batch.put(info.testQualifiedName(), generator.generate(info));
+        }
+
+        assertEquals(2, batch.size());
+        assertEquals(List.of(), compiler.check(batch));
+    }
+
+    // ── Sample data ────────────────────────────────────────────────────────
+
+    private ServiceClassInfo userService() {
+        return new ServiceClassInfo("com.example", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            List.of(
+                new MethodInfo("findById", "User", false,
+                    List.of(new ParamInfo("Long", "id")), List.of(),
+                    List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "User"))),
+                new MethodInfo("deleteUser", "void", true,
+                    List.of(new ParamInfo("Long", "id")), List.of(),
+                    List.of(new DependencyCall("userRepository", "deleteById", List.of("Long"), "void")))));
+    }
+
+    private static File jarOf(Class<?> type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = sources.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,67 @@
+package com.testgen.plugin;
+
+import com.testgen.plugin.model.ServiceClassInfo.*;
+import com.testgen.plugin.model.SignatureFingerprint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignatureFingerprintTest {
+
+    private static final List<FieldInfo> FIELDS = List.of(
+        new FieldInfo("UserRepository", "userRepository"),
+        new FieldInfo("EmailService", "emailService"));
+
+    private static final MethodInfo FIND_BY_ID = new MethodInfo(
+        "findById", "User", false,
+        List.of(new ParamInfo("Long", "id")),
+        List.of("UserNotFoundException"));
+
+    @Test
+    void of_shouldBeStableAcrossSessions() {
+        // Persisted in the project cache — must never change between releases
+        assertEquals(-5853846127571817217L, SignatureFingerprint.of(FIND_BY_ID, SignatureFingerprint.ofFields(FIELDS)));
+    }
+
+    @Test
+    void of_shouldIgnoreParameterNames() {
+        MethodInfo renamed = new MethodInfo("findById", "User", false,
+            List.of(new ParamInfo("Long", "userId")), List.of("UserNotFoundException"));
+        assertEquals(fingerprint(FIND_BY_ID), fingerprint(renamed));
+    }
+
+    @Test
+    void of_shouldChangeWithSignature() {
+        long original = fingerprint(FIND_BY_ID);
+        assertNotEquals(original, fingerprint(new MethodInfo("findById", "Optional<User>", false,
+            FIND_BY_ID.params(), FIND_BY_ID.thrownExceptions())));
+        assertNotEquals(original, fingerprint(new MethodInfo("findById", "User", false,
+            List.of(new ParamInfo("String", "id")), FIND_BY_ID.thrownExceptions())));
+        assertNotEquals(original, fingerprint(new MethodInfo("findById", "User", false,
+            FIND_BY_ID.params(), List.of())));
+    }
+
+    @Test
+    void of_shouldNotConfuseParamTypesWithExceptions() {
+        MethodInfo asParam = new MethodInfo("run", "void", true,
+            List.of(new ParamInfo("Foo", "foo")), List.of());
+        MethodInfo asException = new MethodInfo("run", "void", true,
+            List.of(), List.of("Foo"));
+        assertNotEquals(fingerprint(asParam), fingerprint(asException));
+    }
+
+    @Test
+    void ofFields_shouldIgnoreOrderButNotContent() {
+        long fields = SignatureFingerprint.ofFields(FIELDS);
+        assertEquals(fields, SignatureFingerprint.ofFields(List.of(FIELDS.get(1), FIELDS.get(0))));
+        assertNotEquals(fields, SignatureFingerprint.ofFields(FIELDS.subList(0, 1)));
+        assertNotEquals(SignatureFingerprint.of(FIND_BY_ID, fields),
+                        SignatureFingerprint.of(FIND_BY_ID, SignatureFingerprint.ofFields(List.of())));
+    }
+
+    private long fingerprint(MethodInfo method) {
+        return SignatureFingerprint.of(method, SignatureFingerprint.ofFields(FIELDS));
+    }
+}
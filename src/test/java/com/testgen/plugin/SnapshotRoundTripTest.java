@@ -0,0 +1,138 @@
+package com.testgen.plugin;
+
+import com.testgen.plugin.model.ServiceClassInfo;
+import com.testgen.plugin.model.ServiceClassInfo.*;
+import com.testgen.plugin.snapshot.SnapshotReader;
+import com.testgen.plugin.snapshot.SnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotRoundTripTest {
+
+    private static final String ROOT = "/repo/src/main/java";
+    private static final String KEY  = "3f2a9c1";
+
+    @Test
+    void roundTrip_shouldPreserveEveryField() throws IOException {
+        List<ServiceClassInfo> infos = List.of(userService(), emptyService());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes, ROOT, KEY)) {
+            for (ServiceClassInfo info : infos) writer.add(info);
+        }
+
+        assertEquals(infos, SnapshotReader.read(ByteBuffer.wrap(bytes.toByteArray())));
+    }
+
+    @Test
+    void roundTrip_shouldReadMappedFile(@TempDir Path dir) throws IOException {
+        List<ServiceClassInfo> infos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            infos.add(new ServiceClassInfo("com.example.p" + (i % 10), "Service" + i,
+                userService().injectedFields(), userService().publicMethods()));
+        }
+
+        Path file = dir.resolve("analysis.snapshot");
+        try (SnapshotWriter writer = SnapshotWriter.create(file, ROOT, KEY)) {
+            for (ServiceClassInfo info : infos) writer.add(info);
+        }
+
+        assertEquals(infos, SnapshotReader.read(file));
+    }
+
+    @Test
+    void read_shouldRejectForeignData() {
+        ByteBuffer garbage = ByteBuffer.wrap(new byte[64]);
+        IOException e = assertThrows(IOException.class, () -> SnapshotReader.read(garbage));
+        assertTrue(e.getMessage().contains("Not a ServiceClassInfo snapshot"));
+    }
+
+    @Test
+    void read_shouldRejectTruncatedSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes, ROOT, KEY)) {
+            writer.add(userService());
+        }
+        byte[] full = bytes.toByteArray();
+        byte[] truncated = new byte[full.length - 20];
+        System.arraycopy(full, 0, truncated, 0, truncated.length);
+
+        assertThrows(IOException.class, () -> SnapshotReader.read(ByteBuffer.wrap(truncated)));
+    }
+
+    @Test
+    void readHeader_shouldReturnWhatWasAnalyzed(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("analysis.snapshot");
+        try (SnapshotWriter writer = SnapshotWriter.create(file, ROOT, KEY)) {
+            writer.add(userService());
+        }
+
+        assertEquals(new SnapshotReader.Header(ROOT, KEY), SnapshotReader.readHeader(file));
+    }
+
+    @Test
+    void read_shouldRejectRecordCountBeyondFileSize() throws IOException {
+        byte[] snapshot = snapshotOf(emptyService());
+        // Footer: int64 tableOffset, int32 recordCount, int32 MAGIC
+        ByteBuffer.wrap(snapshot).putInt(snapshot.length - 8, Integer.MAX_VALUE);
+
+        IOException e = assertThrows(IOException.class,
+                                     () -> SnapshotReader.read(ByteBuffer.wrap(snapshot)));
+        assertTrue(e.getMessage().contains("footer"));
+    }
+
+    @Test
+    void read_shouldRejectCountBeyondRemainingBytes() throws IOException {
+        byte[] snapshot = snapshotOf(emptyService());
+        // Header, then the record: package and class indexes, then its field count
+        int fieldCount = 8 + 1 + ROOT.length() + 1 + KEY.length() + 2;
+        assertEquals(0, snapshot[fieldCount]);
+        snapshot[fieldCount] = 0x7F;
+
+        IOException e = assertThrows(IOException.class,
+                                     () -> SnapshotReader.read(ByteBuffer.wrap(snapshot)));
+        assertTrue(e.getMessage().contains("count 127"));
+    }
+
+    private byte[] snapshotOf(ServiceClassInfo info) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes, ROOT, KEY)) {
+            writer.add(info);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ── Sample data ────────────────────────────────────────────────────────
+
+    private ServiceClassInfo userService() {
+        return new ServiceClassInfo(
+            "com.example.service", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository"),
+                    new FieldInfo("Map<String, List<Long>>", "cache")),
+            List.of(
+                new MethodInfo("findById", "User", false,
+                    List.of(new ParamInfo("Long", "id")),
+                    List.of("UserNotFoundException"),
+                    List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "Optional<User>",
+                                               false, List.of("UserNotFoundException")),
+                            new DependencyCall("cache", "clear", List.of(), "void", true))),
+                new MethodInfo("deleteAll", "void", true, List.of(), List.of()),
+                new MethodInfo("rename", "String", false,
+                    List.of(new ParamInfo("String", "naïve"), new ParamInfo("int[]", "ids")),
+                    List.of("IllegalStateException", "UserNotFoundException"))),
+            List.of("com.example.model.*", "com.example.model.User", "java.util.Optional"));
+    }
+
+    private ServiceClassInfo emptyService() {
+        return new ServiceClassInfo("", "Empty", List.of(), List.of());
+    }
+}
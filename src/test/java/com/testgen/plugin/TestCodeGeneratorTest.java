@@ -4,10 +4,16 @@ import com.testgen.plugin.generator.TestCodeGenerator;
 import com.testgen.plugin.model.ServiceClassInfo;
 import com.testgen.plugin.model.ServiceClassInfo.*;
 import com.testgen.plugin.settings.TestGeneratorSettings;
+import com.testgen.plugin.settings.TestNamingPattern;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +27,8 @@ class TestCodeGeneratorTest {
     void setUp() {
         settings = mock(TestGeneratorSettings.class);
         when(settings.getTestNamingPattern()).thenReturn("{method}_should{suffix}");
+        when(settings.getCompiledNamingPattern())
+            .thenReturn(TestNamingPattern.compile("{method}_should{suffix}"));
         generator = new TestCodeGenerator(settings);
     }
 
@@ -75,7 +83,8 @@ class TestCodeGeneratorTest {
     @Test
     void generate_shouldHandleVoidMethod() {
         MethodInfo voidMethod = new MethodInfo("deleteUser", "void", true,
-            List.of(new ParamInfo("Long", "id")), List.of());
+            List.of(new ParamInfo("Long", "id")), List.of(),
+            List.of(new DependencyCall("userRepository", "deleteById", List.of("Long"), "void")));
         ServiceClassInfo info = new ServiceClassInfo("com.example", "UserService",
             List.of(new FieldInfo("UserRepository", "userRepository")),
             List.of(voidMethod));
@@ -84,6 +93,51 @@ class TestCodeGeneratorTest {
         // void methods: no result variable, verify interactions
         assertFalse(result.contains("void result ="));
         assertTrue(result.contains("verify(userRepository"));
+        assertTrue(result.contains("verify(userRepository, atLeastOnce()).deleteById(any());"));
+        assertFalse(result.contains("when(userRepository.deleteById"));
+    }
+
+    @Test
+    void generate_shouldStubAndVerifyRecordedDependencyCalls() {
+        MethodInfo method = new MethodInfo("countActive", "int", false,
+            List.of(new ParamInfo("long", "tenantId")), List.of(),
+            List.of(new DependencyCall("userRepository", "countByTenant", List.of("long"), "int"),
+                    new DependencyCall("auditLog", "record", List.of("", "String"), "")));
+        ServiceClassInfo info = new ServiceClassInfo("com.example", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository"),
+                    new FieldInfo("AuditLog", "auditLog")),
+            List.of(method));
+
+        String result = generator.generate(info);
+        assertTrue(result.contains("when(userRepository.countByTenant(anyLong())).thenReturn(1);"));
+        assertTrue(result.contains("verify(userRepository, atLeastOnce()).countByTenant(anyLong());"));
+        // Unknown result type: left to Mockito's default answer, but still verified
+        assertFalse(result.contains("when(auditLog"));
+        assertTrue(result.contains("verify(auditLog, atLeastOnce()).record(any(), any());"));
+        assertFalse(result.contains("someMethod"));
+    }
+
+    @Test
+    void generate_shouldStubConditionalCallsLenientlyWithoutVerifying() {
+        MethodInfo method = new MethodInfo("findOrCreate", "User", false,
+            List.of(new ParamInfo("Long", "id")), List.of("UserNotFoundException"),
+            List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "User", true,
+                                       List.of("UserNotFoundException")),
+                    new DependencyCall("userRepository", "save", List.of("User"), "User", false,
+                                       List.of("UserNotFoundException"))));
+        ServiceClassInfo info = new ServiceClassInfo("com.example", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            List.of(method));
+
+        String result = generator.generate(info);
+        assertTrue(result.contains(
+            "lenient().when(userRepository.findById(any())).thenReturn(mock(User.class));"));
+        assertFalse(result.contains("verify(userRepository, atLeastOnce()).findById"));
+        assertTrue(result.contains("        when(userRepository.save(any())).thenReturn(mock(User.class));"));
+        assertTrue(result.contains("verify(userRepository, atLeastOnce()).save(any());"));
+        // The exception comes from a call that is always made
+        assertTrue(result.contains(
+            "doThrow(new UserNotFoundException(\"test error\")).when(userRepository).save(any());"));
     }
 
     @Test
@@ -100,6 +154,138 @@ class TestCodeGeneratorTest {
         assertTrue(result.contains("assertThrows(UserNotFoundException.class"));
     }
 
+    @Test
+    void generate_shouldMakeFirstDependencyCallThrow() {
+        MethodInfo throwingMethod = new MethodInfo("findById", "User", false,
+            List.of(new ParamInfo("Long", "id")),
+            List.of("UserNotFoundException"),
+            List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "Optional<User>",
+                                       false, List.of("UserNotFoundException"))));
+        ServiceClassInfo info = new ServiceClassInfo("com.example", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            List.of(throwingMethod));
+
+        String result = generator.generate(info);
+        assertTrue(result.contains("when(userRepository.findById(any())).thenReturn(Optional.empty());"));
+        assertTrue(result.contains(
+            "doThrow(new UserNotFoundException(\"test error\")).when(userRepository).findById(any());"));
+    }
+
+    @Test
+    void generate_shouldNotThrowFromCallThatCannotThrowTheException() {
+        // findById can't throw the (checked) IOException; save declares it
+        MethodInfo method = new MethodInfo("importUser", "void", true,
+            List.of(new ParamInfo("Long", "id")), List.of("IOException"),
+            List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "User"),
+                    new DependencyCall("userRepository", "save", List.of("User"), "User", false,
+                                       List.of("IOException"))));
+        MethodInfo noThrowingCall = new MethodInfo("exportUser", "void", true,
+            List.of(new ParamInfo("Long", "id")), List.of("IOException"),
+            List.of(new DependencyCall("userRepository", "findById", List.of("Long"), "User")));
+        ServiceClassInfo info = new ServiceClassInfo("com.example", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            List.of(method, noThrowingCall));
+
+        String result = generator.generate(info);
+        assertTrue(result.contains(
+            "doThrow(new IOException(\"test error\")).when(userRepository).save(any());"));
+        assertFalse(result.contains("when(userRepository).findById"));
+        assertTrue(result.contains("// TODO: make a dependency throw IOException"));
+    }
+
+    @Test
+    void generate_shouldEmitSortedImportsWithStaticsLast() {
+        ServiceClassInfo info = new ServiceClassInfo("com.example.service", "UserService",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            buildSampleInfo().publicMethods(),
+            List.of("java.util.Optional", "com.example.model.User", "com.example.repo.*"));
+        String result = generator.generate(info);
+
+        String imports = result.substring(result.indexOf("import "), result.indexOf("@ExtendWith"));
+        assertEquals(
+            "import com.example.model.User;\n" +
+            "import com.example.repo.*;\n" +
+            "import java.util.Optional;\n" +
+            "import org.junit.jupiter.api.BeforeEach;\n" +
+            "import org.junit.jupiter.api.Test;\n" +
+            "import org.junit.jupiter.api.extension.ExtendWith;\n" +
+            "import org.mockito.InjectMocks;\n" +
+            "import org.mockito.Mock;\n" +
+            "import org.mockito.MockitoAnnotations;\n" +
+            "import org.mockito.junit.jupiter.MockitoExtension;\n" +
+            "\n" +
+            "import static org.junit.jupiter.api.Assertions.*;\n" +
+            "import static org.mockito.Mockito.*;\n" +
+            "\n", imports);
+    }
+
+    @Test
+    void generate_shouldQualifyFrameworkTypeShadowedByDomainType() {
+        ServiceClassInfo info = new ServiceClassInfo("com.example.service", "UserService",
+            List.of(new FieldInfo("Mock", "mock")),
+            List.of(new MethodInfo("run", "Test", false, List.of(), List.of())),
+            List.of("com.example.model.Mock", "com.example.model.Test"));
+        String result = generator.generate(info);
+
+        assertTrue(result.contains("import com.example.model.Test;"));
+        assertFalse(result.contains("import org.junit.jupiter.api.Test;"));
+        assertFalse(result.contains("import org.mockito.Mock;"));
+        assertTrue(result.contains("    @org.junit.jupiter.api.Test\n"));
+        assertTrue(result.contains("    @org.mockito.Mock\n    private Mock mock;"));
+    }
+
+    @Test
+    void generate_shouldNameTestsOfSameNamedNestedClassesApart() {
+        ServiceClassInfo handler = new ServiceClassInfo("com.example", "Handlers.Create",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            buildSampleInfo().publicMethods());
+        ServiceClassInfo command = new ServiceClassInfo("com.example", "Commands.Create",
+            List.of(new FieldInfo("UserRepository", "userRepository")),
+            buildSampleInfo().publicMethods());
+
+        assertEquals("com.example.Handlers.Create", handler.qualifiedName());
+        assertEquals("Create", handler.simpleName());
+        assertEquals("com.example.Handlers_CreateTest", handler.testQualifiedName());
+        assertNotEquals(handler.testQualifiedName(), command.testQualifiedName());
+
+        String result = generator.generate(handler);
+        assertTrue(result.contains("class Handlers_CreateTest {"));
+        assertTrue(result.contains("    private Handlers.Create create;"));
+        assertTrue(result.contains("void findById_shouldSucceed()"));
+        assertFalse(result.contains("import com.example.Handlers"));
+        assertTrue(generator.generate(command).contains("class Commands_CreateTest {"));
+    }
+
+    @Test
+    void generate_shouldStreamSameSourceAsStringVariant() throws IOException {
+        ServiceClassInfo info = buildSampleInfo();
+        StringWriter out = new StringWriter();
+        generator.generate(info, out);
+        assertEquals(generator.generate(info), out.toString());
+    }
+
+    @Test
+    void generate_shouldProduceSameSourceInParallelAsSequentially() {
+        List<MethodInfo> methods = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            methods.add(new MethodInfo("operation" + i, i % 2 == 0 ? "void" : "User", i % 2 == 0,
+                List.of(new ParamInfo("Long", "id")),
+                i % 3 == 0 ? List.of("UserNotFoundException") : List.of(),
+                List.of(new DependencyCall("userRepository", "load" + i, List.of("Long"), "User"))));
+        }
+        ServiceClassInfo info = new ServiceClassInfo("com.example", "FacadeService",
+            List.of(new FieldInfo("UserRepository", "userRepository")), methods);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            String sequential = new TestCodeGenerator(settings).generate(info);
+            String parallel   = new TestCodeGenerator(settings, executor, 1).generate(info);
+            assertEquals(sequential, parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     // ── Sample data ────────────────────────────────────────────────────────
 
     private ServiceClassInfo buildSampleInfo() {
@@ -0,0 +1,62 @@
+package com.testgen.plugin;
+
+import com.testgen.plugin.model.ServiceClassInfo.MethodInfo;
+import com.testgen.plugin.model.ServiceClassInfo.ParamInfo;
+import com.testgen.plugin.settings.TestNamingPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestNamingPatternTest {
+
+    private static final MethodInfo FIND_BY_ID = new MethodInfo(
+        "findById", "User", false,
+        List.of(new ParamInfo("Long", "id"), new ParamInfo("List<String>", "tags"),
+                new ParamInfo("int[]", "flags")),
+        List.of());
+
+    @Test
+    void format_shouldSubstituteMethodAndSuffix() {
+        TestNamingPattern pattern = TestNamingPattern.compile("{method}_should{suffix}");
+        assertEquals("findById_shouldSucceed", pattern.format("UserService", FIND_BY_ID, "Succeed"));
+    }
+
+    @Test
+    void format_shouldSupportClassAndCapitalizedMethod() {
+        TestNamingPattern pattern = TestNamingPattern.compile("{class}_test{Method}");
+        assertEquals("UserService_testFindById", pattern.format("UserService", FIND_BY_ID, "Succeed"));
+    }
+
+    @Test
+    void format_shouldRenderParamTypesAsIdentifier() {
+        TestNamingPattern pattern = TestNamingPattern.compile("{method}_{params}");
+        assertEquals("findById_LongListIntArray", pattern.format("UserService", FIND_BY_ID, "Succeed"));
+    }
+
+    @Test
+    void format_shouldKeepUnknownPlaceholdersLiterally() {
+        TestNamingPattern pattern = TestNamingPattern.compile("{method}_{unknown}{");
+        assertEquals("findById_{unknown}{", pattern.format("UserService", FIND_BY_ID, "Succeed"));
+    }
+
+    @Test
+    void fromLegacy_shouldNameTestsAsTheOldSuffixesDid() {
+        for (String legacy : List.of("{method}_should{suffix}", "{method}_{suffix}",
+                                     "test_{method}_{suffix}", "{method}")) {
+            TestNamingPattern pattern = TestNamingPattern.compile(TestNamingPattern.fromLegacy(legacy));
+            assertEquals(legacyName(legacy, "shouldSucceed"),
+                         pattern.format("UserService", FIND_BY_ID, "Succeed"));
+            assertEquals(legacyName(legacy, "shouldThrowUserNotFoundException"),
+                         pattern.format("UserService", FIND_BY_ID, "ThrowUserNotFoundException"));
+        }
+    }
+
+    /** How test names were built before patterns were compiled. */
+    private static String legacyName(String pattern, String suffix) {
+        return pattern
+            .replace("{method}", FIND_BY_ID.methodName())
+            .replace("{suffix}", suffix);
+    }
+}